@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.4"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.example"
@@ -28,16 +29,67 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-webflux")
     implementation("org.springframework.boot:spring-boot-starter-data-r2dbc")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("io.projectreactor:reactor-core-micrometer")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.3.0")
     compileOnly("org.projectlombok:lombok")
-    runtimeOnly("org.postgresql:r2dbc-postgresql")
+    implementation("org.postgresql:r2dbc-postgresql")
+    implementation("io.r2dbc:r2dbc-pool")
+    implementation("io.r2dbc:r2dbc-proxy")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+    // br response compression; Netty offers it only when a native matching the host loads and
+    // otherwise negotiates gzip/deflate, so an unlisted platform loses br, not compression
+    runtimeOnly("com.aayushatharva.brotli4j:brotli4j:1.16.0")
+    runtimeOnly("com.aayushatharva.brotli4j:native-linux-x86_64:1.16.0")
+    runtimeOnly("com.aayushatharva.brotli4j:native-linux-aarch64:1.16.0")
+    runtimeOnly("com.aayushatharva.brotli4j:native-osx-x86_64:1.16.0")
+    runtimeOnly("com.aayushatharva.brotli4j:native-osx-aarch64:1.16.0")
+    runtimeOnly("com.aayushatharva.brotli4j:native-windows-x86_64:1.16.0")
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("io.projectreactor:reactor-test")
     testImplementation("org.springframework.security:spring-security-test")
+    testImplementation("io.zonky.test:embedded-postgres:2.1.0")
+    testImplementation(enforcedPlatform("io.zonky.test.postgres:embedded-postgres-binaries-bom:16.4.0"))
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("load")
+    }
+}
+
+tasks.register<Test>("loadTest") {
+    description = "Runs the end-to-end load test against an embedded PostgreSQL server."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("load")
+    }
+    shouldRunAfter(tasks.test)
+    outputs.upToDateWhen { false }
+    testLogging {
+        showStandardStreams = true
+    }
+    listOf("rps", "duration", "concurrency", "content-size", "bulk-size", "max-error-rate").forEach { name ->
+        providers.gradleProperty("load.$name").orNull?.let { systemProperty("load.$name", it) }
+    }
+}
+
+jmh {
+    jmhVersion = "1.37"
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    includes = providers.gradleProperty("jmhIncludes").map { listOf(it) }.orElse(emptyList())
+}
@@ -0,0 +1,81 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.cache.CredentialCache;
+import com.example.demo.model.AppRole;
+import com.example.demo.model.UserDetails;
+import com.example.demo.ratelimit.RateLimiter;
+import com.example.demo.repository.InMemoryUserRepository;
+import com.example.demo.security.TokenService;
+import com.example.demo.service.AuthService;
+import com.example.demo.service.PasswordHasher;
+import com.example.demo.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link AuthService#validateUser} when the credential cache is empty (full BCrypt
+ * verification) against a warm cache hit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthServiceBenchmark {
+
+    private static final String USERNAME = "bench_user";
+    private static final String PASSWORD = "bench-password";
+
+    @State(Scope.Benchmark)
+    public static class Auth {
+
+        CredentialCache credentialCache;
+        PasswordHasher passwordHasher;
+        AuthService authService;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            credentialCache = new CredentialCache(meterRegistry, 10_000, Duration.ofMinutes(5));
+            passwordHasher = new PasswordHasher(meterRegistry, 0, 64);
+            UserService userService = new UserService(new InMemoryUserRepository(), passwordHasher, credentialCache);
+            userService.createUser(new UserDetails(USERNAME, PASSWORD, AppRole.USER, true)).block();
+            authService = new AuthService(userService, credentialCache, new TokenService("", Duration.ofMinutes(15), Duration.ofDays(7)),
+                    new StaticListableBeanFactory().getBeanProvider(RateLimiter.class));
+            authService.validateUser(USERNAME, PASSWORD).block();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            passwordHasher.shutdown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCache {
+
+        @Setup(Level.Invocation)
+        public void evict(Auth auth) {
+            auth.credentialCache.invalidate(USERNAME);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Boolean validateCold(Auth auth, ColdCache coldCache) {
+        return auth.authService.validateUser(USERNAME, PASSWORD).block();
+    }
+
+    @Benchmark
+    public Boolean validateCached(Auth auth) {
+        return auth.authService.validateUser(USERNAME, PASSWORD).block();
+    }
+}
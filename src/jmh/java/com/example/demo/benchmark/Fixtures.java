@@ -0,0 +1,50 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Note;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class Fixtures {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    private Fixtures() {
+    }
+
+    static Note note(long id, int contentSize) {
+        Note note = new Note();
+        note.setNoteId(id);
+        note.setTitle("Meeting notes " + id);
+        note.setContent("x".repeat(contentSize));
+        note.setCreatedAt(BASE_TIME.minusMinutes(id));
+        note.setUpdatedAt(BASE_TIME.minusMinutes(id));
+        note.setOwnerName("John Doe");
+        note.setOwnerEmail("john.doe@example.com");
+        note.setVersion(0L);
+        return note;
+    }
+
+    static List<Note> notes(int count, int contentSize) {
+        List<Note> notes = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            notes.add(note(i, contentSize));
+        }
+        return notes;
+    }
+
+    /**
+     * Services read their limits from {@code @Value} fields; outside Spring those stay at zero,
+     * so benchmarks set them to the application.properties defaults.
+     */
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to set " + name, e);
+        }
+    }
+}
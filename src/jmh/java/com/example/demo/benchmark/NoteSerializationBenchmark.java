@@ -0,0 +1,87 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Note;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of a single note and of a {@code Flux<Note>} pushed through the
+ * same WebFlux encoder the controllers use, as a JSON array and as NDJSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteSerializationBenchmark {
+
+    private static final ResolvableType NOTE_TYPE = ResolvableType.forClass(Note.class);
+
+    @Param({"64", "1024", "5000"})
+    private int contentSize;
+
+    @Param({"100"})
+    private int fluxSize;
+
+    private ObjectWriter noteWriter;
+    private Jackson2JsonEncoder encoder;
+    private DefaultDataBufferFactory bufferFactory;
+    private Note note;
+    private List<Note> notes;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        noteWriter = objectMapper.writerFor(Note.class);
+        encoder = new Jackson2JsonEncoder(objectMapper);
+        bufferFactory = DefaultDataBufferFactory.sharedInstance;
+        note = Fixtures.note(1L, contentSize);
+        notes = Fixtures.notes(fluxSize, contentSize);
+    }
+
+    @Benchmark
+    public byte[] writeNote() throws Exception {
+        return noteWriter.writeValueAsBytes(note);
+    }
+
+    @Benchmark
+    public long encodeFluxAsJsonArray() {
+        return encode(MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public long encodeFluxAsNdjson() {
+        return encode(MediaType.APPLICATION_NDJSON);
+    }
+
+    private long encode(MediaType mediaType) {
+        Long written = encoder.encode(Flux.fromIterable(notes), bufferFactory, NOTE_TYPE, mediaType, Map.of())
+                .map(this::readableAndRelease)
+                .reduce(0L, Long::sum)
+                .block();
+        return written == null ? 0 : written;
+    }
+
+    private long readableAndRelease(DataBuffer buffer) {
+        long size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+}
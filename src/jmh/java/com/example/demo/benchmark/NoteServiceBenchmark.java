@@ -0,0 +1,128 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.cache.CaffeineNoteCache;
+import com.example.demo.cache.NoOpNoteCache;
+import com.example.demo.cache.NoteCache;
+import com.example.demo.model.Note;
+import com.example.demo.model.NoteFilter;
+import com.example.demo.model.NotePage;
+import com.example.demo.model.NoteSearchHit;
+import com.example.demo.model.NoteSearchResult;
+import com.example.demo.repository.NoteRepository;
+import com.example.demo.service.NoteBatchLoader;
+import com.example.demo.service.NoteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Exercises {@link NoteService} against an in-memory stub repository, so the numbers cover the
+ * service's own work (paging, cursors, query building, chunking, caching, metrics) without I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteServiceBenchmark {
+
+    private static final NoteFilter NO_FILTER = new NoteFilter(null, null, null, null, null, null);
+
+    @Param({"1024"})
+    private int contentSize;
+
+    @Param({"50"})
+    private int pageSize;
+
+    @Param({"2000"})
+    private int bulkSize;
+
+    private NoteService cachedService;
+    private NoteService uncachedService;
+    private List<Note> page;
+    private List<Note> bulk;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<Note> stored = Fixtures.notes(pageSize + 1, contentSize);
+        NoteRepository repository = stubRepository(stored);
+        cachedService = noteService(repository,
+                new CaffeineNoteCache(meterRegistry, 64L * 1024 * 1024, Duration.ofMinutes(1)), meterRegistry);
+        uncachedService = noteService(repository, new NoOpNoteCache(), meterRegistry);
+        page = stored;
+        bulk = Fixtures.notes(bulkSize, contentSize);
+        cachedService.get(1L).block();
+    }
+
+    @Benchmark
+    public NotePage getNotesPage() {
+        return uncachedService.getNotes(NO_FILTER, null, pageSize).block();
+    }
+
+    @Benchmark
+    public Note getCached() {
+        return cachedService.get(1L).block();
+    }
+
+    @Benchmark
+    public Note getUncached() {
+        return uncachedService.get(1L).block();
+    }
+
+    @Benchmark
+    public NoteSearchResult search() {
+        return uncachedService.search("project meeting-notes 2024", null, 20, 0).block();
+    }
+
+    @Benchmark
+    public Long createBulk() {
+        return uncachedService.createBulk(Flux.fromIterable(bulk), "benchmark").count().block();
+    }
+
+    private static NoteService noteService(NoteRepository repository, NoteCache noteCache, MeterRegistry meterRegistry) {
+        NoteBatchLoader noteBatchLoader = new NoteBatchLoader(repository, meterRegistry, Duration.ZERO, 1);
+        NoteService noteService = new NoteService(repository, noteCache, noteBatchLoader, meterRegistry,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        Fixtures.setField(noteService, "defaultPageLimit", 50);
+        Fixtures.setField(noteService, "maxPageLimit", 500);
+        Fixtures.setField(noteService, "exportFetchSize", 500);
+        Fixtures.setField(noteService, "bulkChunkSize", 500);
+        Fixtures.setField(noteService, "defaultSearchLimit", 20);
+        Fixtures.setField(noteService, "maxSearchLimit", 100);
+        Fixtures.setField(noteService, "maxSearchOffset", 1000);
+        Fixtures.setField(noteService, "maxBatchGetIds", 200);
+        return noteService;
+    }
+
+    private static NoteRepository stubRepository(List<Note> stored) {
+        Map<Long, Note> byId = stored.stream().collect(Collectors.toMap(Note::getNoteId, Function.identity()));
+        List<NoteSearchHit> hits = stored.stream()
+                .map(note -> new NoteSearchHit(note.getNoteId(), note.getTitle(), note.getTitle(), 0.5, note.getUpdatedAt()))
+                .toList();
+        return (NoteRepository) Proxy.newProxyInstance(NoteRepository.class.getClassLoader(),
+                new Class<?>[]{NoteRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findPage" -> Flux.fromIterable(stored).take((int) args[3]);
+                    case "findById" -> Mono.justOrEmpty(byId.get((Long) args[0]));
+                    case "search" -> Flux.fromIterable(hits).take((int) args[2]);
+                    case "insertAll" -> Flux.fromIterable((List<?>) args[0]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
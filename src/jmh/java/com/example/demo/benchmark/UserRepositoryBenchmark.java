@@ -0,0 +1,69 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.AppRole;
+import com.example.demo.model.UserDetails;
+import com.example.demo.repository.InMemoryUserRepository;
+import com.example.demo.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup throughput of the in-memory {@link UserRepository} with many threads reading, and with
+ * readers competing against a concurrent writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserRepositoryBenchmark {
+
+    @Param({"10000"})
+    private int userCount;
+
+    private UserRepository userRepository;
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        userRepository = new InMemoryUserRepository();
+        names = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            names[i] = "user_" + i;
+            userRepository.insert(new UserDetails(names[i], "encoded-password", AppRole.USER, true)).block();
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UserDetails findByNameContended() {
+        return userRepository.findByName(randomName()).block();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(7)
+    public UserDetails readWhileWriting() {
+        return userRepository.findByName(randomName()).block();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public UserDetails writeWhileReading() {
+        return userRepository.update(new UserDetails(randomName(), "encoded-password", AppRole.USER, true)).block();
+    }
+
+    private String randomName() {
+        return names[ThreadLocalRandom.current().nextInt(names.length)];
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.Note;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, TTL-expiring read-through cache of notes. Concurrent misses for the same id
+ * share one in-flight load; a load that finds nothing is not cached. Writes on this instance
+ * invalidate directly; writes on other instances arrive through {@code NoteChangeFeed}, so an
+ * entry outlives a remote change only by the notification delay, or by up to the TTL while the
+ * feed is disabled.
+ */
+@Component
+@ConditionalOnProperty(name = "notes.cache.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class CaffeineNoteCache implements NoteCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final AsyncCache<Long, Note> cache;
+
+    public CaffeineNoteCache(MeterRegistry meterRegistry,
+                             @Value("${notes.cache.max-weight:67108864}") long maxWeight,
+                             @Value("${notes.cache.ttl:60s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long noteId, Note note) -> weigh(note))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "notes");
+        log.info("Note cache configured with max weight {} bytes and ttl {}", maxWeight, ttl);
+    }
+
+    @Override
+    public Mono<Note> get(long noteId, Function<Long, Mono<Note>> loader) {
+        // The load is shared by concurrent callers; it runs with the context of the one that started it
+        return Mono.deferContextual(context -> Mono.fromFuture(() -> cache.get(noteId,
+                (id, executor) -> loader.apply(id).contextWrite(context).toFuture()), true));
+    }
+
+    @Override
+    public void invalidate(long noteId) {
+        cache.synchronous().invalidate(noteId);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    private static int weigh(Note note) {
+        return ENTRY_OVERHEAD_BYTES + 2 * (length(note.getTitle()) + length(note.getContent())
+                + length(note.getOwnerName()) + length(note.getOwnerEmail()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
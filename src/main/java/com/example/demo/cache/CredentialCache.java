@@ -0,0 +1,82 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.UserDetails;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Remembers username/password pairs that recently passed BCrypt verification so repeat
+ * requests skip the hash. Entries are keyed by an HMAC of the credentials and the stored
+ * password hash under a per-process random key, so a password changed on any instance stops
+ * matching as soon as the new hash is read; raw passwords are never stored.
+ */
+@Component
+@Slf4j
+public class CredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, String> verified;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    public CredentialCache(MeterRegistry meterRegistry,
+                           @Value("${auth.credential-cache.max-size:10000}") long maxSize,
+                           @Value("${auth.credential-cache.ttl:5m}") Duration ttl) {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "auth.credentials");
+        log.info("Credential cache configured with max size {} and ttl {}", maxSize, ttl);
+    }
+
+    public boolean isVerified(UserDetails user, String password) {
+        return verified.getIfPresent(digest(user, password)) != null;
+    }
+
+    public void markVerified(UserDetails user, String password) {
+        verified.put(digest(user, password), user.name());
+    }
+
+    public void invalidate(String username) {
+        log.debug("Invalidating cached credentials for user: {}", username);
+        verified.asMap().values().removeIf(username::equals);
+    }
+
+    private String digest(UserDetails user, String password) {
+        Mac mac = macs.get();
+        mac.update(user.name().getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(password.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(user.password().getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(mac.doFinal());
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + HMAC_ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.Note;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import java.util.function.Function;
+
+@Component
+@ConditionalOnProperty(name = "notes.cache.enabled", havingValue = "false")
+public class NoOpNoteCache implements NoteCache {
+
+    @Override
+    public Mono<Note> get(long noteId, Function<Long, Mono<Note>> loader) {
+        return loader.apply(noteId);
+    }
+
+    @Override
+    public void invalidate(long noteId) {
+    }
+
+    @Override
+    public void invalidateAll() {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.Note;
+import reactor.core.publisher.Mono;
+import java.util.function.Function;
+
+public interface NoteCache {
+
+    Mono<Note> get(long noteId, Function<Long, Mono<Note>> loader);
+
+    void invalidate(long noteId);
+
+    /** Drops every entry; used when changes may have been missed and any entry could be stale. */
+    void invalidateAll();
+}
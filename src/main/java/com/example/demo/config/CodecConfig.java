@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Adds Smile, Jackson's binary JSON, alongside the default JSON codecs. Clients opt in with
+ * {@code Accept}/{@code Content-Type: application/x-jackson-smile}, or the streaming variant
+ * for {@code Flux} endpoints; the mapper shares the application's Jackson settings.
+ */
+@Configuration
+public class CodecConfig {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final String SMILE_STREAM_VALUE = "application/stream+x-jackson-smile";
+
+    @Bean
+    public CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2SmileEncoder(smileMapper));
+            configurer.customCodecs().register(new Jackson2SmileDecoder(smileMapper));
+        };
+    }
+}
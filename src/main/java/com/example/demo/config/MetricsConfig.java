@@ -0,0 +1,27 @@
+package com.example.demo.config;
+
+import com.example.demo.metrics.TimedConnectionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionAcquireTimer(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ConnectionFactory connectionFactory
+                        && !(bean instanceof TimedConnectionFactory)) {
+                    return new TimedConnectionFactory(connectionFactory, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
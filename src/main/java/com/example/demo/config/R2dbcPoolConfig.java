@@ -0,0 +1,173 @@
+package com.example.demo.config;
+
+import com.example.demo.metrics.QueryTimingListener;
+import com.example.demo.routing.ReadWriteRoutingConnectionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.proxy.ProxyConnectionFactory;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import io.r2dbc.spi.ValidationDepth;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds the connection pool in place of Boot's so it can add what Boot does not expose:
+ * background eviction, warm-up before traffic arrives, and a query-timing proxy between the
+ * pool and the driver. Sizes, lifetimes, timeouts, min-idle and validation still come from
+ * {@code spring.r2dbc.pool.*}; {@code db.pool.*} only holds the eviction and warm-up settings
+ * Boot has no property for. When {@code db.replicas.urls} lists read replicas, each gets a
+ * pool with the same settings and the primary and replicas are combined behind a
+ * {@link ReadWriteRoutingConnectionFactory}.
+ */
+@Configuration
+@Slf4j
+public class R2dbcPoolConfig {
+
+    private static final String POOL_DRIVER = "pool";
+
+    @Value("${db.pool.warm-up:true}")
+    private boolean warmUpEnabled;
+
+    @Value("${db.pool.warm-up-timeout:10s}")
+    private Duration warmUpTimeout;
+
+    @Value("${db.pool.background-eviction-interval:30s}")
+    private Duration backgroundEvictionInterval;
+
+    @Value("${db.replicas.urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${db.replicas.strategy:round-robin}")
+    private String replicaStrategy;
+
+    @Value("${db.replicas.sticky-window:5s}")
+    private Duration stickyWindow;
+
+    @Value("${db.replicas.health-check-interval:5s}")
+    private Duration healthCheckInterval;
+
+    @Value("${db.replicas.max-lag:5s}")
+    private Duration maxReplicaLag;
+
+    private final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+
+    @Bean
+    public QueryTimingListener queryTimingListener(MeterRegistry meterRegistry,
+                                                   @Value("${db.slow-query.threshold:500ms}") Duration slowThreshold) {
+        return new QueryTimingListener(meterRegistry, slowThreshold);
+    }
+
+    @Bean
+    public ConnectionFactory connectionFactory(R2dbcProperties properties,
+                                               QueryTimingListener queryTimingListener,
+                                               MeterRegistry meterRegistry) {
+        String name = properties.getName() == null ? "notes" : properties.getName();
+        ConnectionPool primary = pool(name, properties.getUrl(), properties, queryTimingListener);
+        List<String> urls = replicaUrls == null ? List.of() : replicaUrls.stream().filter(url -> !url.isBlank()).toList();
+        if (urls.isEmpty()) {
+            return primary;
+        }
+        List<ConnectionPool> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(pool(name + "-replica-" + i, urls.get(i), properties, queryTimingListener));
+        }
+        log.info("Routing read-only note queries across {} replicas ({}), sticky window {}",
+                replicas.size(), replicaStrategy, stickyWindow);
+        return new ReadWriteRoutingConnectionFactory(primary, replicas,
+                "least-loaded".equalsIgnoreCase(replicaStrategy), stickyWindow,
+                healthCheckInterval, maxReplicaLag, meterRegistry);
+    }
+
+    private ConnectionPool pool(String name, String url, R2dbcProperties properties, QueryTimingListener queryTimingListener) {
+        R2dbcProperties.Pool pool = properties.getPool();
+        ConnectionFactory timed = ProxyConnectionFactory.builder(driverConnectionFactory(url, properties))
+                .listener(queryTimingListener.forPool(name))
+                .build();
+        ConnectionPoolConfiguration.Builder configuration = ConnectionPoolConfiguration.builder(timed)
+                .name(name)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .minIdle(Math.min(pool.getMinIdle(), pool.getMaxSize()))
+                .maxIdleTime(pool.getMaxIdleTime())
+                .backgroundEvictionInterval(backgroundEvictionInterval)
+                .validationDepth(pool.getValidationDepth() == null ? ValidationDepth.LOCAL : pool.getValidationDepth());
+        // Unset deadlines keep r2dbc-pool's defaults (no limit), as Boot's own pool would
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(pool.getMaxLifeTime()).to(configuration::maxLifeTime);
+        map.from(pool.getMaxAcquireTime()).to(configuration::maxAcquireTime);
+        map.from(pool.getMaxCreateConnectionTime()).to(configuration::maxCreateConnectionTime);
+        map.from(pool.getMaxValidationTime()).to(configuration::maxValidationTime);
+        map.from(pool.getValidationQuery()).whenHasText().to(configuration::validationQuery);
+        ConnectionPool connectionPool = new ConnectionPool(configuration.build());
+        pools.put(name, connectionPool);
+        queryTimingListener.attach(name, connectionPool);
+        log.info("Connection pool {} configured: size {}-{}, acquire timeout {}, max lifetime {}, eviction every {}",
+                name, pool.getInitialSize(), pool.getMaxSize(), pool.getMaxAcquireTime(), pool.getMaxLifeTime(),
+                backgroundEvictionInterval);
+        return connectionPool;
+    }
+
+    private static ConnectionFactory driverConnectionFactory(String url, R2dbcProperties properties) {
+        return ConnectionFactories.get(driverOptions(url, properties));
+    }
+
+    /**
+     * Driver-level options for {@code url}: a {@code r2dbc:pool:} prefix is dropped (it would
+     * otherwise put a second pool under ours), options given in the URL are kept, and
+     * {@code spring.r2dbc.username}, {@code password} and {@code properties.*} fill in the rest.
+     */
+    public static ConnectionFactoryOptions driverOptions(String url, R2dbcProperties properties) {
+        ConnectionFactoryOptions urlOptions = ConnectionFactoryOptions.parse(url);
+        ConnectionFactoryOptions.Builder options = urlOptions.mutate();
+        if (POOL_DRIVER.equals(urlOptions.getValue(ConnectionFactoryOptions.DRIVER))) {
+            options.option(ConnectionFactoryOptions.DRIVER, (String) urlOptions.getRequiredValue(ConnectionFactoryOptions.PROTOCOL));
+            options.option(ConnectionFactoryOptions.PROTOCOL, "");
+        }
+        if (properties.getUsername() != null && !urlOptions.hasOption(ConnectionFactoryOptions.USER)) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (properties.getPassword() != null && !urlOptions.hasOption(ConnectionFactoryOptions.PASSWORD)) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+        properties.getProperties().forEach((key, value) -> {
+            if (!urlOptions.hasOption(Option.valueOf(key))) {
+                options.option(Option.valueOf(key), value);
+            }
+        });
+        return options.build();
+    }
+
+    /**
+     * Opens every pool's initial connections once the application is up, so the first requests
+     * do not pay for TCP, TLS and authentication. A failure is logged and left to the pool to retry.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUpEnabled) {
+            return;
+        }
+        pools.forEach((name, pool) -> {
+            try {
+                Integer opened = pool.warmup().block(warmUpTimeout);
+                log.info("Connection pool {} warmed up with {} connections", name, opened);
+            } catch (RuntimeException e) {
+                log.warn("Connection pool {} warm-up failed: {}", name, e.getMessage());
+            }
+        });
+    }
+}
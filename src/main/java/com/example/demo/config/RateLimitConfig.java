@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import com.example.demo.ratelimit.RateLimitProperties;
+import com.example.demo.ratelimit.RateLimiter;
+import com.example.demo.ratelimit.TrustedProxies;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new RateLimiter(properties, meterRegistry);
+    }
+
+    @Bean
+    public TrustedProxies trustedProxies(RateLimitProperties properties) {
+        return new TrustedProxies(properties.trustedProxies());
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.demo.config;
 
+import com.example.demo.security.BearerTokenConverter;
+import com.example.demo.security.TokenAuthenticationManager;
+import com.example.demo.security.TokenService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
 
 @Configuration
 @EnableWebFluxSecurity
@@ -13,17 +21,27 @@ import org.springframework.security.web.server.SecurityWebFilterChain;
 public class SecurityConfig {
 
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, TokenService tokenService) {
         log.info("Configuring security web filter chain");
         SecurityWebFilterChain filterChain = http
                 .authorizeExchange(exchanges -> exchanges
                         .pathMatchers("/notes/**").permitAll()
+                        .pathMatchers("/api/v1/auth/**").permitAll()
                         .anyExchange().authenticated()
                 )
+                .addFilterAt(bearerTokenFilter(tokenService), SecurityWebFiltersOrder.AUTHENTICATION)
                 .httpBasic(httpBasic -> {})
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .build();
         log.info("Security configuration completed");
         return filterChain;
     }
-}
\ No newline at end of file
+
+    private AuthenticationWebFilter bearerTokenFilter(TokenService tokenService) {
+        AuthenticationWebFilter filter = new AuthenticationWebFilter(new TokenAuthenticationManager(tokenService));
+        filter.setServerAuthenticationConverter(new BearerTokenConverter());
+        filter.setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(
+                new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)));
+        return filter;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.AuthRequest;
+import com.example.demo.model.RefreshTokenRequest;
+import com.example.demo.service.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("api/v1/auth")
+@RequiredArgsConstructor
+@Tag(name = "Authentication", description = "APIs for obtaining and refreshing bearer tokens")
+public class AuthController {
+
+    private final AuthService authService;
+
+    @PostMapping("/login")
+    @Operation(summary = "Log in", description = "Exchanges username and password for an access token and a refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens issued"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials")
+    })
+    public Mono<ResponseEntity<?>> login(@Valid @RequestBody AuthRequest auth) {
+        return authService.login(auth.username(), auth.password())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials"));
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh tokens", description = "Exchanges a valid refresh token for a new token pair")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens issued"),
+            @ApiResponse(responseCode = "401", description = "Invalid, expired or revoked refresh token")
+    })
+    public Mono<ResponseEntity<?>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return authService.refresh(request.refreshToken())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Note;
+import com.example.demo.model.NotePage;
+import com.example.demo.model.NoteVersion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+final class NoteETags {
+
+    private NoteETags() {
+    }
+
+    static String of(Note note) {
+        return of(note.getNoteId(), note.getVersion());
+    }
+
+    static String of(NoteVersion version) {
+        return of(version.noteId(), version.version());
+    }
+
+    private static String of(Long noteId, Long version) {
+        return "\"" + noteId + "-" + version + "\"";
+    }
+
+    /**
+     * Weak tag over the ids and versions on a page plus its cursor, so any write, insert or
+     * delete that changes what the page shows changes the tag.
+     */
+    static String of(NotePage page) {
+        long hash = 1125899906842597L;
+        for (Note note : page.items()) {
+            hash = 31 * hash + note.getNoteId();
+            hash = 31 * hash + (note.getVersion() == null ? 0 : note.getVersion());
+        }
+        hash = 31 * hash + (page.nextCursor() == null ? 0 : page.nextCursor().hashCode());
+        return "W/\"" + page.items().size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * HTTP dates carry whole seconds, so updated_at is truncated before it is sent or compared;
+     * otherwise a client echoing Last-Modified back in If-Modified-Since would always look stale.
+     */
+    static Instant lastModified(LocalDateTime updatedAt) {
+        return updatedAt == null
+                ? Instant.EPOCH
+                : updatedAt.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    static boolean isConditional(HttpHeaders requestHeaders) {
+        return requestHeaders.containsKey(HttpHeaders.IF_NONE_MATCH)
+                || requestHeaders.containsKey(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+
+    static ResponseEntity.BodyBuilder ok(Note note) {
+        return ResponseEntity.ok().eTag(of(note)).lastModified(lastModified(note.getUpdatedAt()));
+    }
+
+    /**
+     * Extracts the versions an If-Match header accepts. Returns {@code null} when the header is
+     * absent or {@code *}. If-Match uses strong comparison (RFC 9110, section 13.1.1), so weak
+     * tags, malformed tags and tags of other notes are skipped; when nothing usable remains the
+     * result is empty and the write fails its precondition.
+     */
+    static List<Long> expectedVersions(String ifMatch, long noteId) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String element : ifMatch.split(",")) {
+            Long version = strongVersion(element.trim(), noteId);
+            if (version != null && !versions.contains(version)) {
+                versions.add(version);
+            }
+        }
+        return versions;
+    }
+
+    private static Long strongVersion(String tag, long noteId) {
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int separator = value.indexOf('-');
+        try {
+            if (separator < 0 || Long.parseLong(value.substring(0, separator)) != noteId) {
+                return null;
+            }
+            return Long.parseLong(value.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
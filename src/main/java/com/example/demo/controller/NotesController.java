@@ -1,6 +1,8 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.CodecConfig;
 import com.example.demo.model.*;
+import com.example.demo.service.NoteChangeFeed;
 import com.example.demo.service.NoteService;
 import com.example.demo.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -8,64 +10,177 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.http.HttpStatus;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
 
 
 
 @RestController
 @RequestMapping("api/v1/notes")
-@Slf4j
 @RequiredArgsConstructor
 @Tag(name = "Notes Management", description = "APIs for managing notes with reactive programming")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class NotesController {
 
+    private static final String AUTH_USERNAME_HEADER = "X-Auth-Username";
+    private static final String AUTH_PASSWORD_HEADER = "X-Auth-Password";
+
+    private static final Duration CHANGE_STREAM_KEEP_ALIVE = Duration.ofSeconds(15);
+
     private final NoteService noteService;
+    private final ObjectProvider<NoteChangeFeed> noteChangeFeed;
     private final AuthService authService;
 
-    private ResponseEntity<?> validateAuth(AuthRequest auth) {
-        if (!authService.validateUser(auth.username(), auth.password())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
-        }
-        return null;
+    @GetMapping
+    @Operation(summary = "Get notes", description = "Retrieves a page of notes, newest first, using cursor pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Notes retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Page unchanged since the supplied ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public Mono<ResponseEntity<?>> getAllNotes(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of notes to return", example = "50") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Only notes owned by this email") @RequestParam(required = false) String ownerEmail,
+            @Parameter(description = "Only notes created by this user; served from that user's index range (and partition, when partitioned)") @RequestParam(required = false) String owner,
+            @Parameter(description = "Created at or after (ISO date-time)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Created before (ISO date-time)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Updated at or after (ISO date-time)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @Parameter(description = "Updated before (ISO date-time)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+            @RequestBody(required = false) AuthRequest auth) {
+        return authService.requireUsername(auth).flatMap(username -> {
+            NoteFilter filter = new NoteFilter(ownerEmail, createdFrom, createdTo, updatedFrom, updatedTo, owner);
+            return noteService.getNotes(filter, cursor, limit)
+                    .map(page -> ResponseEntity.ok().eTag(NoteETags.of(page)).body(page));
+        });
     }
 
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE, CodecConfig.SMILE_STREAM_VALUE})
+    @Operation(summary = "Export notes", description = "Streams every note as NDJSON, server-sent events or streaming Smile with end-to-end backpressure")
+    @ApiResponse(responseCode = "200", description = "Notes streamed successfully")
+    public Mono<ResponseEntity<?>> exportNotes(
+            @Parameter(description = "Only notes owned by this email") @RequestParam(required = false) String ownerEmail,
+            @RequestBody(required = false) AuthRequest auth) {
+        return authService.requireUsername(auth).flatMap(username -> {
+            Flux<Note> notes = noteService.exportNotes(ownerEmail);
+            return Mono.just(ResponseEntity.ok(notes));
+        });
+    }
 
-    @GetMapping
-    @Operation(summary = "Get all notes", description = "Retrieves all notes using reactive streams")
-    @ApiResponse(responseCode = "200", description = "Notes retrieved successfully")
-    public ResponseEntity<?> getAllNotes(@RequestBody AuthRequest auth) {
-        ResponseEntity<?> authError = validateAuth(auth);
-        if (authError != null) return authError;
-        
-        log.info("GET /api/v1/notes - Fetching all notes for user: {}", auth.username());
-        Flux<Note> notes = noteService.getAllNotes();
-        log.info("GET /api/v1/notes - Notes retrieved successfully");
-        return ResponseEntity.ok(notes);
+    @GetMapping("/search")
+    @Operation(summary = "Search notes", description = "Ranked full-text search over note titles and content with prefix matching and highlighted snippets")
+    @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+    public Mono<ResponseEntity<?>> searchNotes(
+            @Parameter(description = "Search text; every word must match, as a prefix", example = "meet proj") @RequestParam("q") String query,
+            @Parameter(description = "Only notes owned by this email") @RequestParam(required = false) String ownerEmail,
+            @Parameter(description = "Maximum number of results", example = "20") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Number of results to skip", example = "0") @RequestParam(required = false) Integer offset,
+            @RequestBody(required = false) AuthRequest auth) {
+        return authService.requireUsername(auth).flatMap(username -> {
+            Mono<NoteSearchResult> results = noteService.search(query, ownerEmail, limit, offset);
+            return Mono.just(ResponseEntity.ok(results));
+        });
+    }
+
+    @GetMapping("/sync")
+    @Operation(summary = "Sync notes", description = "Returns notes created or updated, and tombstones for notes deleted, since a watermark from a previous sync; omit the watermark for a full initial sync")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid watermark")
+    })
+    public Mono<ResponseEntity<?>> syncNotes(
+            @Parameter(description = "Watermark returned by the previous sync") @RequestParam(required = false) String since,
+            @Parameter(description = "Only notes owned by this email") @RequestParam(required = false) String ownerEmail,
+            @Parameter(description = "Maximum number of changes to return", example = "500") @RequestParam(required = false) Integer limit,
+            @RequestBody(required = false) AuthRequest auth) {
+        return authService.requireUsername(auth).flatMap(username -> {
+            Mono<NoteSyncResult> changes = noteService.sync(since, ownerEmail, limit);
+            return Mono.just(ResponseEntity.ok(changes));
+        });
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get notes by IDs", description = "Fetches several notes in one query; notes come back in the order requested and unknown ids are listed as missing")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Notes retrieved"),
+            @ApiResponse(responseCode = "400", description = "Too many ids requested")
+    })
+    public Mono<ResponseEntity<?>> getNotesByIds(
+            @Parameter(description = "Comma-separated note IDs", example = "1,2,3") @RequestParam List<Long> ids,
+            @RequestBody(required = false) AuthRequest auth) {
+        return authService.requireUsername(auth)
+                .flatMap(username -> noteService.getMany(ids).<ResponseEntity<?>>map(ResponseEntity::ok));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to note changes", description = "Server-sent events for every note created, updated or deleted, optionally limited to one owner; slow subscribers lose their oldest events")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Change stream opened"),
+            @ApiResponse(responseCode = "404", description = "Change feed disabled on this instance")
+    })
+    public Mono<ResponseEntity<?>> streamChanges(
+            @Parameter(description = "Only changes to notes owned by this email") @RequestParam(required = false) String ownerEmail,
+            @RequestBody(required = false) AuthRequest auth) {
+        return authService.requireUsername(auth).flatMap(username -> {
+            NoteChangeFeed feed = noteChangeFeed.getIfAvailable();
+            if (feed == null) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+            }
+            Flux<ServerSentEvent<NoteChangeEvent>> changes = feed.subscribe(ownerEmail)
+                    .map(event -> ServerSentEvent.builder(event)
+                            .event(event.type())
+                            .id(event.noteId() + "-" + event.version())
+                            .build());
+            Flux<ServerSentEvent<NoteChangeEvent>> keepAlive = Flux.interval(CHANGE_STREAM_KEEP_ALIVE)
+                    .onBackpressureDrop()
+                    .map(tick -> ServerSentEvent.<NoteChangeEvent>builder().comment("keep-alive").build());
+            return Mono.just(ResponseEntity.ok(Flux.merge(changes, keepAlive)));
+        });
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get note by ID", description = "Retrieves a specific note by its ID using reactive mono")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Note found and retrieved"),
+            @ApiResponse(responseCode = "304", description = "Note unchanged since the supplied ETag or date"),
             @ApiResponse(responseCode = "404", description = "Note not found")
     })
-    public ResponseEntity<?> getNoteById(
+    public Mono<ResponseEntity<?>> getNoteById(
             @Parameter(description = "ID of the note to retrieve", example = "1") @PathVariable long id,
-            @RequestBody AuthRequest auth) {
-        ResponseEntity<?> authError = validateAuth(auth);
-        if (authError != null) return authError;
-        
-        log.info("GET /api/v1/notes/{} - Fetching note for user: {}", id, auth.username());
-        Mono<Note> note = noteService.get(id);
-        log.info("GET /api/v1/notes/{} - Note retrieved successfully", id);
-        return ResponseEntity.ok(note);
+            @RequestBody(required = false) AuthRequest auth,
+            ServerWebExchange exchange) {
+        return authService.requireUsername(auth).flatMap(username -> {
+            if (!NoteETags.isConditional(exchange.getRequest().getHeaders())) {
+                return noteService.get(id).map(note -> NoteETags.ok(note).body(note));
+            }
+            return noteService.getVersion(id)
+                    .flatMap(version -> {
+                        String eTag = NoteETags.of(version);
+                        Instant lastModified = NoteETags.lastModified(version.updatedAt());
+                        if (exchange.checkNotModified(eTag, lastModified)) {
+                            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                    .eTag(eTag)
+                                    .lastModified(lastModified)
+                                    .build());
+                        }
+                        return noteService.get(id).map(note -> NoteETags.ok(note).body(note));
+                    });
+        });
     }
 
     @PostMapping
@@ -74,66 +189,76 @@ public class NotesController {
             @ApiResponse(responseCode = "201", description = "Note created successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid note data")
     })
-    public ResponseEntity<?> createNote(@RequestBody CreateNoteRequest request) {
-        ResponseEntity<?> authError = validateAuth(request.auth());
-        if (authError != null) return authError;
-        
-        log.info("POST /api/v1/notes - Creating new note for user: {}", request.auth().username());
-        Mono<Note> createdNote = noteService.create(request.note());
-        log.info("POST /api/v1/notes - Note created successfully");
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdNote);
+    public Mono<ResponseEntity<?>> createNote(@RequestBody CreateNoteRequest request) {
+        return authService.requireUsername(request.auth()).flatMap(username -> {
+            Mono<Note> createdNote = noteService.create(request.note(), username);
+            return Mono.just(ResponseEntity.status(HttpStatus.CREATED).body(createdNote));
+        });
     }
 
     @PostMapping("/bulk")
-    @Operation(summary = "Create multiple notes", description = "Creates multiple notes in bulk using reactive flux")
+    @Operation(summary = "Create multiple notes", description = "Creates up to " + BulkNotesRequest.MAX_NOTES + " notes from a JSON array; use /bulk/stream for larger imports")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Notes created successfully in bulk"),
-            @ApiResponse(responseCode = "400", description = "Invalid notes data")
+            @ApiResponse(responseCode = "400", description = "Invalid notes data or too many notes")
     })
-    public ResponseEntity<?> createNotesBulk(@RequestBody BulkNotesRequest request) {
-        ResponseEntity<?> authError = validateAuth(request.auth());
-        if (authError != null) return authError;
-        
-        log.info("POST /api/v1/notes/bulk - Creating notes in bulk for user: {}", request.auth().username());
-        Flux<Note> createdNotes = noteService.createBulk(request.notes());
-        log.info("POST /api/v1/notes/bulk - Bulk notes created successfully");
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdNotes);
+    public Mono<ResponseEntity<?>> createNotesBulk(@Valid @RequestBody BulkNotesRequest request) {
+        return authService.requireUsername(request.auth()).flatMap(username -> {
+            Flux<Note> createdNotes = noteService.createBulk(Flux.fromIterable(request.notes()), username);
+            return Mono.just(ResponseEntity.status(HttpStatus.CREATED).body(createdNotes));
+        });
+    }
+
+    @PostMapping(value = "/bulk/stream", consumes = {MediaType.APPLICATION_NDJSON_VALUE, CodecConfig.SMILE_STREAM_VALUE})
+    @Operation(summary = "Stream notes in bulk",
+            description = "Ingests newline-delimited JSON or streaming Smile notes incrementally, optionally gzip or deflate compressed; authenticate with a bearer token or credential headers because the body is the note stream")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Notes ingested, summary returned; notes failing validation are skipped and listed"),
+            @ApiResponse(responseCode = "400", description = "Malformed note in the stream; summary returned with the last committed offset"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "413", description = "Stream exceeds the inflated size limit; summary returned with the last committed offset")
+    })
+    public Mono<ResponseEntity<?>> ingestNotes(
+            @Parameter(description = "Username, when not using a bearer token") @RequestHeader(value = AUTH_USERNAME_HEADER, required = false) String authUsername,
+            @Parameter(description = "Password, when not using a bearer token") @RequestHeader(value = AUTH_PASSWORD_HEADER, required = false) String authPassword,
+            @RequestBody Flux<Note> notes) {
+        AuthRequest auth = authUsername == null || authPassword == null ? null : new AuthRequest(authUsername, authPassword);
+        // Mapped rather than returned as a Mono body, so a failed stream reaches the exception handler before any status is set
+        return authService.requireUsername(auth).flatMap(username -> noteService.ingest(notes, username)
+                .map(summary -> ResponseEntity.status(HttpStatus.CREATED).body(summary)));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update note", description = "Updates an existing note completely with new data")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Note updated successfully"),
-            @ApiResponse(responseCode = "404", description = "Note not found")
+            @ApiResponse(responseCode = "400", description = "Invalid note data"),
+            @ApiResponse(responseCode = "404", description = "Note not found"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
     })
-    public ResponseEntity<?> updateNote(
+    public Mono<ResponseEntity<?>> updateNote(
             @Parameter(description = "ID of the note to update", example = "1") @PathVariable long id,
-            @RequestBody UpdateNoteRequest request) {
-        ResponseEntity<?> authError = validateAuth(request.auth());
-        if (authError != null) return authError;
-        
-        log.info("PUT /api/v1/notes/{} - Updating note for user: {}", id, request.auth().username());
-        Mono<Note> updatedNote = noteService.update(id, request.note());
-        log.info("PUT /api/v1/notes/{} - Note updated successfully", id);
-        return ResponseEntity.ok(updatedNote);
+            @Parameter(description = "Strong ETags of the versions that may be replaced") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UpdateNoteRequest request) {
+        return authService.requireUsername(request.auth()).flatMap(username ->
+                noteService.update(id, request.note(), NoteETags.expectedVersions(ifMatch, id))
+                        .map(updatedNote -> NoteETags.ok(updatedNote).body(updatedNote)));
     }
 
     @PatchMapping("/{id}")
     @Operation(summary = "Partially update note", description = "Updates specific fields of an existing note")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Note partially updated successfully"),
-            @ApiResponse(responseCode = "404", description = "Note not found")
+            @ApiResponse(responseCode = "404", description = "Note not found"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
     })
-    public ResponseEntity<?> patchNote(
+    public Mono<ResponseEntity<?>> patchNote(
             @Parameter(description = "ID of the note to partially update", example = "1") @PathVariable long id,
+            @Parameter(description = "Strong ETags of the versions that may be patched") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody UpdateNoteRequest request) {
-        ResponseEntity<?> authError = validateAuth(request.auth());
-        if (authError != null) return authError;
-        
-        log.info("PATCH /api/v1/notes/{} - Partially updating note for user: {}", id, request.auth().username());
-        Mono<Note> patchedNote = noteService.patch(id, request.note());
-        log.info("PATCH /api/v1/notes/{} - Note patched successfully", id);
-        return ResponseEntity.ok(patchedNote);
+        return authService.requireUsername(request.auth()).flatMap(username ->
+                noteService.patch(id, request.note(), NoteETags.expectedVersions(ifMatch, id))
+                        .map(patchedNote -> NoteETags.ok(patchedNote).body(patchedNote)));
     }
 
     @DeleteMapping("/{id}")
@@ -142,16 +267,11 @@ public class NotesController {
             @ApiResponse(responseCode = "200", description = "Note deleted successfully"),
             @ApiResponse(responseCode = "404", description = "Note not found")
     })
-    public ResponseEntity<?> deleteNote(
+    public Mono<ResponseEntity<?>> deleteNote(
             @Parameter(description = "ID of the note to delete", example = "1") @PathVariable long id,
-            @RequestBody AuthRequest auth) {
-        ResponseEntity<?> authError = validateAuth(auth);
-        if (authError != null) return authError;
-        
-        log.info("DELETE /api/v1/notes/{} - Deleting note for user: {}", id, auth.username());
-        Mono<Void> result = noteService.delete(id);
-        log.info("DELETE /api/v1/notes/{} - Note deleted successfully", id);
-        return ResponseEntity.ok(result);
+            @RequestBody(required = false) AuthRequest auth) {
+        return authService.requireUsername(auth)
+                .flatMap(username -> noteService.delete(id).then(Mono.just(ResponseEntity.ok().build())));
     }
 
 }
@@ -11,10 +11,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import reactor.core.publisher.Mono;
 
 @RequestMapping("api/v1/user")
 @RestController
@@ -26,24 +25,16 @@ public class UserController {
     private final UserService userService;
     private final AuthService authService;
 
-    private ResponseEntity<?> validateAuth(AuthRequest auth) {
-        if (!authService.validateUser(auth.username(), auth.password())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
-        }
-        return null;
-    }
-
     @PostMapping
     @Operation(summary = "Create a new user", description = "Creates a new user with the provided details")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User created successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid user data")
+            @ApiResponse(responseCode = "400", description = "Invalid user data"),
+            @ApiResponse(responseCode = "409", description = "A user with that name already exists")
     })
-    public ResponseEntity<UserDetails> createUser(@Valid @RequestBody UserDetails user) {
-        log.info("POST /api/v1/user - Creating user: {}", user.name());
-        UserDetails createdUser = userService.createUser(user);
-        log.info("POST /api/v1/user - User created successfully: {}", createdUser.name());
-        return ResponseEntity.ok(createdUser);
+    public Mono<ResponseEntity<UserDetails>> createUser(@Valid @RequestBody UserDetails user) {
+        return userService.createUser(user)
+                .map(createdUser -> ResponseEntity.ok(createdUser));
     }
 
     @GetMapping("/{name}")
@@ -52,35 +43,24 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "User found"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<?> getUser(
+    public Mono<ResponseEntity<?>> getUser(
             @Parameter(description = "Name of the user to retrieve") @PathVariable String name,
-            @Valid @RequestBody AuthRequest auth) {
-        ResponseEntity<?> authError = validateAuth(auth);
-        if (authError != null) return authError;
-        
-        log.info("GET /api/v1/user/{} - Retrieving user", name);
-        return userService.getUserByName(name)
-                .map(user -> {
-                    log.info("GET /api/v1/user/{} - User found", name);
-                    return ResponseEntity.ok(user);
-                })
-                .orElseGet(() -> {
-                    log.warn("GET /api/v1/user/{} - User not found", name);
+            @Valid @RequestBody(required = false) AuthRequest auth) {
+        return authService.requireUsername(auth).flatMap(username -> userService.getUserByName(name)
+                .<ResponseEntity<?>>map(user -> ResponseEntity.ok(user))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.debug("User not found: {}", name);
                     return ResponseEntity.notFound().build();
-                });
+                })));
     }
 
     @GetMapping
     @Operation(summary = "Get all users", description = "Retrieves a list of all users")
     @ApiResponse(responseCode = "200", description = "List of users retrieved successfully")
-    public ResponseEntity<?> getAllUsers(@Valid @RequestBody AuthRequest auth) {
-        ResponseEntity<?> authError = validateAuth(auth);
-        if (authError != null) return authError;
-        
-        log.info("GET /api/v1/user - Retrieving all users");
-        List<UserDetails> users = userService.getAllUsers();
-        log.info("GET /api/v1/user - Retrieved {} users", users.size());
-        return ResponseEntity.ok(users);
+    public Mono<ResponseEntity<?>> getAllUsers(@Valid @RequestBody(required = false) AuthRequest auth) {
+        return authService.requireUsername(auth).flatMap(username -> userService.getAllUsers()
+                .collectList()
+                .map(users -> ResponseEntity.ok(users)));
     }
 
     @PutMapping("/{name}")
@@ -89,20 +69,15 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "User updated successfully"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<?> updateUser(
+    public Mono<ResponseEntity<?>> updateUser(
             @Parameter(description = "Name of the user to update") @PathVariable String name, 
             @Valid @RequestBody UpdateUserRequest request) {
-        ResponseEntity<?> authError = validateAuth(request.auth());
-        if (authError != null) return authError;
-        
-        log.info("PUT /api/v1/user/{} - Updating user", name);
-        if (!userService.getUserByName(name).isPresent()) {
-            log.warn("PUT /api/v1/user/{} - User not found for update", name);
-            return ResponseEntity.notFound().build();
-        }
-        UserDetails updatedUser = userService.updateUser(name, request.user());
-        log.info("PUT /api/v1/user/{} - User updated successfully", name);
-        return ResponseEntity.ok(updatedUser);
+        return authService.requireUsername(request.auth()).flatMap(username -> userService.updateUser(name, request.user())
+                .<ResponseEntity<?>>map(updatedUser -> ResponseEntity.ok(updatedUser))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.debug("User not found for update: {}", name);
+                    return ResponseEntity.notFound().build();
+                })));
     }
 
     @DeleteMapping("/{name}")
@@ -111,20 +86,16 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "User deleted successfully"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<?> deleteUser(
+    public Mono<ResponseEntity<?>> deleteUser(
             @Parameter(description = "Name of the user to delete") @PathVariable String name,
-            @Valid @RequestBody AuthRequest auth) {
-        ResponseEntity<?> authError = validateAuth(auth);
-        if (authError != null) return authError;
-        
-        log.info("DELETE /api/v1/user/{} - Deleting user", name);
-        boolean deleted = userService.deleteUser(name);
-        if (deleted) {
-            log.info("DELETE /api/v1/user/{} - User deleted successfully", name);
-            return ResponseEntity.ok().build();
-        } else {
-            log.warn("DELETE /api/v1/user/{} - User not found for deletion", name);
-            return ResponseEntity.notFound().build();
-        }
+            @Valid @RequestBody(required = false) AuthRequest auth) {
+        return authService.requireUsername(auth).flatMap(username -> userService.deleteUser(name)
+                .map(deleted -> {
+                    if (deleted) {
+                        return ResponseEntity.ok().build();
+                    }
+                    log.debug("User not found for deletion: {}", name);
+                    return ResponseEntity.notFound().build();
+                }));
     }
 }
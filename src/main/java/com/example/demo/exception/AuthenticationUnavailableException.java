@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class AuthenticationUnavailableException extends RuntimeException {
+    public AuthenticationUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(int requested, int max) {
+        super("Too many ids requested: " + requested + " (max " + max + ")");
+    }
+}
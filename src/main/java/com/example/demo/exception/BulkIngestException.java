@@ -0,0 +1,19 @@
+package com.example.demo.exception;
+
+import com.example.demo.model.BulkIngestSummary;
+import lombok.Getter;
+
+/**
+ * Raised when a streaming ingestion stops part way, carrying how far it got so the client can
+ * resume after the last committed offset instead of starting over.
+ */
+@Getter
+public class BulkIngestException extends RuntimeException {
+
+    private final BulkIngestSummary summary;
+
+    public BulkIngestException(BulkIngestSummary summary, Throwable cause) {
+        super("Bulk ingestion stopped after offset " + summary.lastCommittedOffset(), cause);
+        this.summary = summary;
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.demo.exception;
 
+import com.example.demo.model.BulkIngestSummary;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
 import jakarta.validation.ConstraintViolationException;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,9 +22,86 @@ import java.util.Map;
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(NoteNotFoundException.class)
-    public ResponseEntity<String> handleNoteNotFound(NoteNotFoundException ex) {
-        log.error("Note not found exception: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    public ResponseEntity<ProblemDetail> handleNoteNotFound(NoteNotFoundException ex) {
+        log.debug("Note not found: {}", ex.getNoteId());
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+        problem.setTitle("Note not found");
+        problem.setProperty("noteId", ex.getNoteId());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(problem);
+    }
+
+    @ExceptionHandler(NoteVersionConflictException.class)
+    public ResponseEntity<String> handleVersionConflict(NoteVersionConflictException ex) {
+        log.debug("Note version conflict: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursor(InvalidCursorException ex) {
+        log.warn("Invalid cursor: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<String> handleBatchTooLarge(BatchTooLargeException ex) {
+        log.debug("Batch too large: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(BulkIngestException.class)
+    public ResponseEntity<BulkIngestSummary> handleBulkIngest(BulkIngestException ex) {
+        Throwable cause = ex.getCause();
+        HttpStatusCode status;
+        String error;
+        if (cause instanceof ResponseStatusException statusException) {
+            status = statusException.getStatusCode();
+            error = statusException.getReason();
+        } else if (cause instanceof DataAccessResourceFailureException) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            error = "Database temporarily unavailable";
+        } else {
+            log.error("Bulk ingestion failed: {}", ex.getMessage(), cause);
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            error = "Internal server error";
+        }
+        log.debug("{} ({})", ex.getMessage(), error);
+        return ResponseEntity.status(status).body(ex.getSummary().withError(error));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimitExceeded(RateLimitExceededException ex) {
+        log.debug("Rate limit exceeded: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(UserAlreadyExistsException.class)
+    public ResponseEntity<String> handleUserAlreadyExists(UserAlreadyExistsException ex) {
+        log.debug("Rejected user creation: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCredentialsException.class)
+    public ResponseEntity<String> handleInvalidCredentials(InvalidCredentialsException ex) {
+        log.debug("Rejected request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(AuthenticationUnavailableException.class)
+    public ResponseEntity<String> handleAuthenticationUnavailable(AuthenticationUnavailableException ex) {
+        log.warn("Authentication unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(DataAccessResourceFailureException.class)
+    public ResponseEntity<String> handleDatabaseUnavailable(DataAccessResourceFailureException ex) {
+        log.warn("Database unavailable: {}", ex.getMostSpecificCause().getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Database temporarily unavailable");
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -30,12 +114,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
 
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleBindException(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+        ex.getGlobalErrors().forEach(error -> errors.put(error.getObjectName(), error.getDefaultMessage()));
+        log.debug("Request body validation failed: {}", errors);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<String> handleConstraintViolation(ConstraintViolationException ex) {
         log.error("Constraint violation: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Validation failed: " + ex.getMessage());
     }
 
+    // Raised while the request body is read (413 from decompression, 400 for malformed input)
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<String> handleResponseStatus(ResponseStatusException ex) {
+        log.debug("Request rejected with {}: {}", ex.getStatusCode(), ex.getReason());
+        return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleRuntimeException(RuntimeException ex) {
         log.error("Runtime exception occurred: {}", ex.getMessage(), ex);
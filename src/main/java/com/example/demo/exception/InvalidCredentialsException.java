@@ -0,0 +1,12 @@
+package com.example.demo.exception;
+
+/**
+ * Raised when a request neither carries a valid bearer token nor credentials that authenticate.
+ * A failed login is routine, so no stack trace is captured.
+ */
+public class InvalidCredentialsException extends RuntimeException {
+
+    public InvalidCredentialsException() {
+        super("Invalid credentials", null, false, false);
+    }
+}
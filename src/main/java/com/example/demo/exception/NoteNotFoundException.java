@@ -1,11 +1,18 @@
 package com.example.demo.exception;
 
+import lombok.Getter;
+
+/**
+ * Raised for ids that do not exist. Missing ids are an expected outcome rather than a fault,
+ * so the exception skips stack trace capture.
+ */
+@Getter
 public class NoteNotFoundException extends RuntimeException {
-    public NoteNotFoundException(String message) {
-        super(message);
-    }
-    
+
+    private final Long noteId;
+
     public NoteNotFoundException(Long id) {
-        super("Note not found with id: " + id);
+        super("Note not found with id: " + id, null, false, false);
+        this.noteId = id;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.example.demo.exception;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Raised when a conditional write finds the note at a version other than the one the client
+ * expected. Losing an optimistic-locking race is a routine outcome (412), not a fault, so the
+ * exception skips stack trace capture.
+ */
+public class NoteVersionConflictException extends RuntimeException {
+    public NoteVersionConflictException(Long id, Collection<Long> expectedVersions) {
+        super("Note " + id + " has been modified, expected version: " + (expectedVersions.isEmpty()
+                ? "none matching If-Match"
+                : expectedVersions.stream().map(String::valueOf).collect(Collectors.joining(" or "))),
+                null, false, false);
+    }
+}
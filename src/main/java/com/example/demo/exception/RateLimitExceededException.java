@@ -0,0 +1,18 @@
+package com.example.demo.exception;
+
+import lombok.Getter;
+
+/**
+ * Raised when a caller resolved from request-body credentials is over its rate limit. Like a
+ * 429 from the filter this is routine, so no stack trace is captured.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Rate limit exceeded, retry after " + retryAfterSeconds + "s", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.exception;
+
+import lombok.Getter;
+
+/**
+ * Raised when a user is created under a name that is already taken. Changing an existing user
+ * goes through the update path instead. A duplicate name is a client error rather than a fault,
+ * so no stack trace is captured.
+ */
+@Getter
+public class UserAlreadyExistsException extends RuntimeException {
+
+    private final String name;
+
+    public UserAlreadyExistsException(String name) {
+        super("User already exists: " + name, null, false, false);
+        this.name = name;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.filter;
+
+import com.example.demo.model.AppRole;
+import com.example.demo.ratelimit.RateLimitedRoute;
+import com.example.demo.ratelimit.RateLimiter;
+import com.example.demo.ratelimit.TrustedProxies;
+import com.example.demo.security.TokenAuthentication;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+/**
+ * Applies {@link RateLimiter} per caller and route group once Spring Security has resolved the
+ * caller. Bearer-token callers are keyed by the token subject and unauthenticated requests by
+ * client address (proxy-aware, see {@link TrustedProxies}). A shared Basic principal says
+ * nothing about the end user, so those requests are charged later, by {@code AuthService},
+ * once the request-body credentials are resolved; until then they count against the client
+ * address under the anonymous limits, which keeps credential routes such as user creation
+ * bounded even though they never resolve an end user. Rejected requests get 429 with a
+ * {@code Retry-After} in whole seconds and never reach the controllers or the pool.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RateLimitFilter implements WebFilter, Ordered {
+
+    private static final int SECURITY_FILTER_ORDER = -100;
+    private static final String ADMIN_AUTHORITY = "ROLE_" + AppRole.ADMIN.name();
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+    // Sentinel wait: the caller is a shared principal and is charged once the end user is known
+    private static final long DEFERRED = -1;
+
+    private final RateLimiter rateLimiter;
+    private final TrustedProxies trustedProxies;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        RateLimitedRoute route = RateLimitedRoute.of(request.getMethod(), request.getPath().pathWithinApplication().value());
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        return exchange.getPrincipal()
+                .map(principal -> principal instanceof TokenAuthentication
+                        ? rateLimiter.tryAcquire(RateLimiter.USER_KEY_PREFIX + principal.getName(), roleOf(principal), route)
+                        : sharedPrincipalWait(request, route))
+                .switchIfEmpty(Mono.fromSupplier(() -> rateLimiter.tryAcquire(clientKey(request), null, route)))
+                .flatMap(waitNanos -> {
+                    if (waitNanos == DEFERRED) {
+                        return chain.filter(exchange).contextWrite(context -> context.put(RateLimitedRoute.class, route));
+                    }
+                    return waitNanos == 0 ? chain.filter(exchange) : reject(exchange, waitNanos);
+                });
+    }
+
+    private long sharedPrincipalWait(ServerHttpRequest request, RateLimitedRoute route) {
+        long waitNanos = rateLimiter.tryAcquire(clientKey(request), null, route);
+        return waitNanos == 0 ? DEFERRED : waitNanos;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, long waitNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(RateLimiter.retryAfterSeconds(waitNanos)));
+        return response.setComplete();
+    }
+
+    private static AppRole roleOf(Principal principal) {
+        if (principal instanceof Authentication authentication) {
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                if (ADMIN_AUTHORITY.equals(authority.getAuthority())) {
+                    return AppRole.ADMIN;
+                }
+            }
+        }
+        return AppRole.USER;
+    }
+
+    private String clientKey(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        return RateLimiter.ADDRESS_KEY_PREFIX + trustedProxies.clientAddress(
+                remote == null ? null : remote.getAddress(), request.getHeaders().get(FORWARDED_FOR_HEADER));
+    }
+
+    @Override
+    public int getOrder() {
+        return SECURITY_FILTER_ORDER + 2;
+    }
+}
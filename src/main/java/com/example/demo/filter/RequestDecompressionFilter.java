@@ -0,0 +1,119 @@
+package com.example.demo.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.Locale;
+
+/**
+ * Accepts request bodies sent with {@code Content-Encoding: gzip} or {@code deflate}. The body is
+ * inflated chunk by chunk as the codecs pull it, so streaming uploads are never buffered whole;
+ * a body that inflates past the limit fails with 413, other encodings are rejected with 415.
+ * The NDJSON ingest route is consumed note by note rather than held, so it gets a limit of its
+ * own ({@code request-decompression.stream-max-inflated-size}) sized for imports, not requests.
+ */
+@Component
+public class RequestDecompressionFilter implements WebFilter, Ordered {
+
+    private static final int ORDER = -150;
+    private static final int CHUNK_SIZE = 8192;
+    private static final String STREAM_PATH = "/api/v1/notes/bulk/stream";
+
+    private final boolean enabled;
+    private final long maxInflatedBytes;
+    private final long maxStreamInflatedBytes;
+
+    public RequestDecompressionFilter(@Value("${request-decompression.enabled:true}") boolean enabled,
+                                      @Value("${request-decompression.max-inflated-size:64MB}") DataSize maxInflatedSize,
+                                      @Value("${request-decompression.stream-max-inflated-size:4GB}") DataSize maxStreamInflatedSize) {
+        this.enabled = enabled;
+        this.maxInflatedBytes = maxInflatedSize.toBytes();
+        this.maxStreamInflatedBytes = maxStreamInflatedSize.toBytes();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String encoding = exchange.getRequest().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (!enabled || encoding == null || encoding.isBlank() || encoding.trim().equalsIgnoreCase("identity")) {
+            return chain.filter(exchange);
+        }
+        String coding = encoding.trim().toLowerCase(Locale.ROOT);
+        if (!coding.equals("gzip") && !coding.equals("x-gzip") && !coding.equals("deflate")) {
+            return Mono.error(new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "Unsupported Content-Encoding: " + encoding));
+        }
+        long limit = STREAM_PATH.equals(exchange.getRequest().getPath().pathWithinApplication().value())
+                ? maxStreamInflatedBytes
+                : maxInflatedBytes;
+        ServerHttpRequest request = new DecompressingRequest(exchange.getRequest(),
+                exchange.getResponse().bufferFactory(), !coding.equals("deflate"), limit);
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private final class DecompressingRequest extends ServerHttpRequestDecorator {
+
+        private final DataBufferFactory bufferFactory;
+        private final boolean gzip;
+        private final long limit;
+        private final HttpHeaders headers;
+
+        private DecompressingRequest(ServerHttpRequest delegate, DataBufferFactory bufferFactory, boolean gzip, long limit) {
+            super(delegate);
+            this.bufferFactory = bufferFactory;
+            this.gzip = gzip;
+            this.limit = limit;
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(delegate.getHeaders());
+            copy.remove(HttpHeaders.CONTENT_ENCODING);
+            copy.remove(HttpHeaders.CONTENT_LENGTH);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(copy);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.using(() -> new StreamingInflater(gzip, limit, CHUNK_SIZE),
+                    inflater -> super.getBody()
+                            .concatMap(compressed -> {
+                                byte[] bytes = new byte[compressed.readableByteCount()];
+                                compressed.read(bytes);
+                                DataBufferUtils.release(compressed);
+                                inflater.feed(bytes);
+                                return Flux.<DataBuffer>generate(sink -> {
+                                    DataBuffer inflated = inflater.next(bufferFactory);
+                                    if (inflated == null) {
+                                        sink.complete();
+                                    } else {
+                                        sink.next(inflated);
+                                    }
+                                });
+                            }, 1)
+                            .concatWith(Mono.<DataBuffer>fromRunnable(inflater::finish)),
+                    StreamingInflater::end)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.filter;
+
+import com.example.demo.security.RequestCaller;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes one logfmt line per exchange once the response has actually completed (or the client
+ * went away). Successful fast requests are sampled ({@code request-logging.sample-rate}, full
+ * logging only where a profile opts in); errors and slow requests are always logged.
+ * Runs ahead of Spring Security so rejected requests are included; the caller is the end user
+ * recorded in the {@link RequestCaller} that {@link RequestPrincipalFilter} attaches.
+ */
+@Component
+@Slf4j(topic = "http.requests")
+public class RequestLoggingFilter implements WebFilter, Ordered {
+
+    private static final int ORDER = -200;
+
+    private static final String ANONYMOUS = "-";
+    // Status an error escaping the chain will be rendered with, recorded before doFinally runs
+    private static final String ERROR_STATUS_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".errorStatus";
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public RequestLoggingFilter(@Value("${request-logging.sample-rate:0.05}") double sampleRate,
+                                @Value("${request-logging.slow-threshold:1s}") Duration slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!log.isInfoEnabled()) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnError(error -> exchange.getAttributes().put(ERROR_STATUS_ATTRIBUTE, errorStatus(error)))
+                .doFinally(signal -> logExchange(exchange, signal, System.nanoTime() - start));
+    }
+
+    private void logExchange(ServerWebExchange exchange, SignalType signal, long elapsedNanos) {
+        int statusCode = signal == SignalType.ON_ERROR
+                ? exchange.getAttributeOrDefault(ERROR_STATUS_ATTRIBUTE, HttpStatus.INTERNAL_SERVER_ERROR.value())
+                : responseStatus(exchange);
+        boolean failed = signal == SignalType.ON_ERROR || statusCode >= 500;
+        boolean slow = elapsedNanos >= slowThresholdNanos;
+        if (!failed && !slow && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        RequestCaller caller = exchange.getAttribute(RequestCaller.ATTRIBUTE);
+        String user = caller == null || caller.name() == null ? ANONYMOUS : caller.name();
+        log.info("method={} path={} status={} durationMs={} user={} outcome={}",
+                exchange.getRequest().getMethod(),
+                exchange.getRequest().getPath().value(),
+                statusCode,
+                TimeUnit.NANOSECONDS.toMicros(elapsedNanos) / 1000.0,
+                user,
+                outcome(signal));
+    }
+
+    // No status set on a completed response means the default, 200
+    private static int responseStatus(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status == null ? HttpStatus.OK.value() : status.value();
+    }
+
+    // Errors that carry a status (ResponseStatusException and friends) are rendered with it, anything else as 500
+    private static int errorStatus(Throwable error) {
+        return error instanceof ErrorResponse response
+                ? response.getStatusCode().value()
+                : HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> "completed";
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
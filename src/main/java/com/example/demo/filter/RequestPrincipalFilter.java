@@ -0,0 +1,40 @@
+package com.example.demo.filter;
+
+import com.example.demo.security.RequestCaller;
+import com.example.demo.security.TokenAuthentication;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs just inside Spring Security and gives the exchange a {@link RequestCaller}: set here for a
+ * verified bearer token, and later by {@code AuthService} for credentials sent in the body (those
+ * requests all authenticate as the shared Basic principal, which is not the end user). It is
+ * stored on the exchange, where {@link RequestLoggingFilter} reads it after the response
+ * completes, and in the Reactor context, where database routing uses it for read-your-writes
+ * stickiness.
+ */
+@Component
+public class RequestPrincipalFilter implements WebFilter, Ordered {
+
+    private static final int SECURITY_FILTER_ORDER = -100;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RequestCaller caller = new RequestCaller();
+        exchange.getAttributes().put(RequestCaller.ATTRIBUTE, caller);
+        return exchange.getPrincipal()
+                .filter(principal -> principal instanceof TokenAuthentication token && token.isAuthenticated())
+                .doOnNext(principal -> caller.resolve(principal.getName()))
+                .then(Mono.defer(() -> chain.filter(exchange)))
+                .contextWrite(caller.bind());
+    }
+
+    @Override
+    public int getOrder() {
+        return SECURITY_FILTER_ORDER + 1;
+    }
+}
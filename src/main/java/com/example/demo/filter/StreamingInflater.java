@@ -0,0 +1,199 @@
+package com.example.demo.filter;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Inflates a gzip or zlib ("deflate") body one compressed chunk at a time, handing out inflated
+ * output in small buffers as it is pulled. Inflated bytes are counted as they are produced, so a
+ * body that expands past the limit fails with 413 without ever being held in memory.
+ * <p>
+ * Not thread-safe; one instance per request body, fed in order.
+ */
+final class StreamingInflater {
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int MAX_GZIP_HEADER_SIZE = 64 * 1024;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private enum State { HEADER, DATA, TRAILER, END }
+
+    private final boolean gzip;
+    private final long maxInflatedBytes;
+    private final Inflater inflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] scratch;
+
+    private State state;
+    private byte[] input = EMPTY;
+    private int offset;
+    private byte[] pending = EMPTY;
+    private boolean memberComplete;
+    private long inflatedBytes;
+
+    StreamingInflater(boolean gzip, long maxInflatedBytes, int chunkSize) {
+        this.gzip = gzip;
+        this.maxInflatedBytes = maxInflatedBytes;
+        this.inflater = new Inflater(gzip);
+        this.scratch = new byte[chunkSize];
+        this.state = gzip ? State.HEADER : State.DATA;
+    }
+
+    /** Supplies the next compressed chunk; {@link #next} must have returned null for the previous one. */
+    void feed(byte[] compressed) {
+        if (pending.length > 0) {
+            byte[] joined = Arrays.copyOf(pending, pending.length + compressed.length);
+            System.arraycopy(compressed, 0, joined, pending.length, compressed.length);
+            compressed = joined;
+            pending = EMPTY;
+        }
+        input = compressed;
+        offset = 0;
+    }
+
+    /** Returns the next inflated buffer, or null once the current compressed chunk is used up. */
+    DataBuffer next(DataBufferFactory bufferFactory) {
+        while (true) {
+            switch (state) {
+                case HEADER -> {
+                    if (offset == input.length) {
+                        return null;
+                    }
+                    memberComplete = false;
+                    int headerSize = gzipHeaderSize();
+                    if (headerSize < 0) {
+                        if (input.length - offset > MAX_GZIP_HEADER_SIZE) {
+                            throw malformed();
+                        }
+                        holdRemaining();
+                        return null;
+                    }
+                    offset += headerSize;
+                    inflater.reset();
+                    crc.reset();
+                    state = State.DATA;
+                }
+                case DATA -> {
+                    int inflated = inflate();
+                    if (inflated > 0) {
+                        inflatedBytes += inflated;
+                        if (inflatedBytes > maxInflatedBytes) {
+                            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                    "Decompressed request body exceeds " + maxInflatedBytes + " bytes");
+                        }
+                        if (gzip) {
+                            crc.update(scratch, 0, inflated);
+                        }
+                        return bufferFactory.allocateBuffer(inflated).write(scratch, 0, inflated);
+                    }
+                    if (inflater.finished()) {
+                        offset = input.length - inflater.getRemaining();
+                        state = gzip ? State.TRAILER : State.END;
+                    } else if (inflater.needsDictionary()) {
+                        throw malformed();
+                    } else if (inflater.needsInput()) {
+                        if (offset == input.length) {
+                            return null;
+                        }
+                        inflater.setInput(input, offset, input.length - offset);
+                        offset = input.length;
+                    }
+                }
+                case TRAILER -> {
+                    if (input.length - offset < GZIP_TRAILER_SIZE) {
+                        holdRemaining();
+                        return null;
+                    }
+                    if (readInt(offset) != (int) crc.getValue() || readInt(offset + 4) != (int) inflater.getBytesWritten()) {
+                        throw malformed();
+                    }
+                    offset += GZIP_TRAILER_SIZE;
+                    memberComplete = true;
+                    state = State.HEADER;
+                }
+                case END -> {
+                    return null;
+                }
+            }
+        }
+    }
+
+    /** Called once the compressed body has ended; rejects a body that stopped mid-stream. */
+    void finish() {
+        boolean complete = gzip
+                ? state == State.HEADER && memberComplete && pending.length == 0
+                : state == State.END;
+        if (!complete) {
+            throw malformed();
+        }
+    }
+
+    void end() {
+        inflater.end();
+    }
+
+    private int inflate() {
+        try {
+            return inflater.inflate(scratch);
+        } catch (DataFormatException e) {
+            throw malformed();
+        }
+    }
+
+    // Length of the gzip member header starting at offset (RFC 1952), or -1 if more input is needed
+    private int gzipHeaderSize() {
+        int available = input.length - offset;
+        if (available < GZIP_HEADER_SIZE) {
+            return -1;
+        }
+        if ((input[offset] & 0xff) != 0x1f || (input[offset + 1] & 0xff) != 0x8b || input[offset + 2] != 8) {
+            throw malformed();
+        }
+        int flags = input[offset + 3] & 0xff;
+        int size = GZIP_HEADER_SIZE;
+        if ((flags & FEXTRA) != 0) {
+            if (available < size + 2) {
+                return -1;
+            }
+            size += 2 + ((input[offset + size] & 0xff) | (input[offset + size + 1] & 0xff) << 8);
+        }
+        for (int flag : new int[] {FNAME, FCOMMENT}) {
+            if ((flags & flag) != 0) {
+                do {
+                    if (size >= available) {
+                        return -1;
+                    }
+                } while (input[offset + size++] != 0);
+            }
+        }
+        if ((flags & FHCRC) != 0) {
+            size += 2;
+        }
+        return size <= available ? size : -1;
+    }
+
+    private int readInt(int position) {
+        return (input[position] & 0xff) | (input[position + 1] & 0xff) << 8
+                | (input[position + 2] & 0xff) << 16 | (input[position + 3] & 0xff) << 24;
+    }
+
+    private void holdRemaining() {
+        pending = Arrays.copyOfRange(input, offset, input.length);
+        offset = input.length;
+    }
+
+    private static ResponseStatusException malformed() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed compressed request body");
+    }
+}
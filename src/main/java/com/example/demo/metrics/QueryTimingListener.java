@@ -0,0 +1,119 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.proxy.listener.ProxyExecutionListener;
+import lombok.extern.slf4j.Slf4j;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every statement executed through the proxied connection factory and logs the ones
+ * slower than the threshold. Only the SQL text (with its bind markers) and the number of bound
+ * parameters are logged, never the values; the live counters of the pool the connection came
+ * from are appended so a slow query can be told apart from a starved pool. Each pool's proxy
+ * gets its own {@link #forPool} listener, so with read replicas a query is attributed to the
+ * replica or primary that actually served it.
+ */
+@Slf4j(topic = "r2dbc.slow-queries")
+public class QueryTimingListener {
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 500;
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+
+    public QueryTimingListener(MeterRegistry meterRegistry, Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    /** The listener for the proxy in front of {@code poolName}; {@link #attach} the pool once it is built. */
+    public ProxyExecutionListener forPool(String poolName) {
+        return new ProxyExecutionListener() {
+            @Override
+            public void afterQuery(QueryExecutionInfo execInfo) {
+                record(poolName, execInfo);
+            }
+        };
+    }
+
+    public void attach(String poolName, ConnectionPool pool) {
+        pools.put(poolName, pool);
+    }
+
+    void record(String poolName, QueryExecutionInfo execInfo) {
+        long elapsedNanos = execInfo.getExecuteDuration().toNanos();
+        String sql = execInfo.getQueries().isEmpty() ? "" : execInfo.getQueries().get(0).getQuery();
+        Timer.builder("r2dbc.query")
+                .description("Statement execution time, excluding connection acquisition")
+                .tag("statement", statementType(sql))
+                .tag("outcome", execInfo.isSuccess() ? "success" : "error")
+                .tag("pool", poolName)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (elapsedNanos >= slowThresholdNanos && log.isWarnEnabled()) {
+            log.warn("durationMs={} statements={} params={} batch={} success={} pool={} [{}] sql=\"{}\"",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    execInfo.getQueries().size(),
+                    boundParameters(execInfo),
+                    execInfo.getBatchSize(),
+                    execInfo.isSuccess(),
+                    poolName,
+                    poolStats(poolName),
+                    abbreviate(sql));
+        }
+    }
+
+    private static int boundParameters(QueryExecutionInfo execInfo) {
+        int count = 0;
+        for (QueryInfo query : execInfo.getQueries()) {
+            count += query.getBindingsList().stream()
+                    .mapToInt(bindings -> bindings.getIndexBindings().size() + bindings.getNamedBindings().size())
+                    .sum();
+        }
+        return count;
+    }
+
+    String poolStats(String poolName) {
+        ConnectionPool current = pools.get(poolName);
+        if (current == null || current.getMetrics().isEmpty()) {
+            return "unavailable";
+        }
+        PoolMetrics metrics = current.getMetrics().get();
+        return "acquired=" + metrics.acquiredSize()
+                + " idle=" + metrics.idleSize()
+                + " allocated=" + metrics.allocatedSize() + "/" + metrics.getMaxAllocatedSize()
+                + " pending=" + metrics.pendingAcquireSize();
+    }
+
+    private static String statementType(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return switch (trimmed.substring(0, end).toLowerCase(Locale.ROOT)) {
+            case "select", "with" -> "select";
+            case "insert" -> "insert";
+            case "update" -> "update";
+            case "delete" -> "delete";
+            default -> "other";
+        };
+    }
+
+    private static String abbreviate(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ").trim();
+        return singleLine.length() <= MAX_LOGGED_SQL_LENGTH
+                ? singleLine
+                : singleLine.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long callers wait for a connection from the underlying factory (pool acquire time).
+ * Implements {@link Wrapped} so the pool can still be found for Boot's pool gauges, and
+ * {@link Closeable} so the pool is still disposed on shutdown.
+ */
+public class TimedConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory>, Closeable {
+
+    private final ConnectionFactory delegate;
+    private final Timer acquireSuccess;
+    private final Timer acquireFailure;
+
+    public TimedConnectionFactory(ConnectionFactory delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.acquireSuccess = acquireTimer(meterRegistry, "success");
+        this.acquireFailure = acquireTimer(meterRegistry, "error");
+    }
+
+    private static Timer acquireTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("r2dbc.connection.acquire")
+                .description("Time spent waiting to obtain a database connection")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<? extends Connection> create() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Mono.from(delegate.create())
+                    .doOnSuccess(connection -> acquireSuccess.record(System.nanoTime() - start,
+                            TimeUnit.NANOSECONDS))
+                    .doOnError(error -> acquireFailure.record(System.nanoTime() - start,
+                            TimeUnit.NANOSECONDS));
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    @Override
+    public Publisher<Void> close() {
+        return delegate instanceof Closeable closeable ? closeable.close() : Mono.empty();
+    }
+}
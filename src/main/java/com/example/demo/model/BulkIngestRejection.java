@@ -0,0 +1,13 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A streamed note that failed validation and was skipped")
+public record BulkIngestRejection(
+        @Schema(description = "Zero-based position of the note in the stream", example = "41")
+        long offset,
+
+        @Schema(description = "Validation failures, as field: message", example = "title: must not be blank")
+        String reason
+) {
+}
@@ -0,0 +1,38 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Outcome of a streaming bulk note ingestion; also returned, with an error, when ingestion stops part way")
+public record BulkIngestSummary(
+        @Schema(description = "Notes written to the database", example = "100000")
+        long inserted,
+
+        @Schema(description = "Notes skipped because they failed validation", example = "3")
+        long rejected,
+
+        @Schema(description = "Multi-row INSERT statements executed", example = "200")
+        long chunks,
+
+        @Schema(description = "Wall-clock duration of the ingestion in milliseconds", example = "8450")
+        long elapsedMillis,
+
+        @Schema(description = "Average ingestion throughput", example = "11834.3")
+        double rowsPerSecond,
+
+        @Schema(description = "Zero-based position in the stream up to which every note is either committed or rejected; "
+                + "resume after it when ingestion stopped part way. -1 when nothing was committed", example = "100002")
+        long lastCommittedOffset,
+
+        @Schema(description = "The first rejected notes with the reasons they failed validation")
+        List<BulkIngestRejection> rejections,
+
+        @Schema(description = "Why ingestion stopped early; absent when the whole stream was processed")
+        String error
+) {
+
+    public BulkIngestSummary withError(String error) {
+        return new BulkIngestSummary(inserted, rejected, chunks, elapsedMillis, rowsPerSecond, lastCommittedOffset,
+                rejections, error);
+    }
+}
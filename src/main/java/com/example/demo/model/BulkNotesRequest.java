@@ -1,9 +1,23 @@
 package com.example.demo.model;
 
-import reactor.core.publisher.Flux;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
 
+@Schema(description = "Request to create several notes at once; larger imports go through /bulk/stream")
 public record BulkNotesRequest(
+        @Schema(description = "Authentication credentials, when not using a bearer token")
         AuthRequest auth,
-        Flux<Note> notes
+
+        @NotNull
+        @Size(min = 1, max = BulkNotesRequest.MAX_NOTES)
+        @Valid
+        @Schema(description = "Notes to create")
+        List<Note> notes
 ) {
-}
\ No newline at end of file
+
+    /** Matches the default notes.bulk.chunk-size, so one request is one multi-row INSERT. */
+    public static final int MAX_NOTES = 500;
+}
@@ -30,7 +30,8 @@ public class Note {
     @Schema(description = "Creation timestamp", example = "2024-01-15T10:30:00")
     private LocalDateTime createdAt;
     
-    @Schema(description = "Last update timestamp", example = "2024-01-15T14:45:00")
+    @Schema(description = "Last update timestamp, maintained by the server on every write", example = "2024-01-15T14:45:00",
+            accessMode = Schema.AccessMode.READ_ONLY)
     private LocalDateTime updatedAt;
     
     @Size(max = 255)
@@ -42,4 +43,12 @@ public class Note {
     @Schema(description = "Email of the note owner", example = "john.doe@example.com")
     private String ownerEmail;
 
+    @Schema(description = "Optimistic concurrency version, incremented on every write", example = "3",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
+    @Schema(description = "ID of the user who created the note; set by the server", example = "7",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private Long userId;
+
 }
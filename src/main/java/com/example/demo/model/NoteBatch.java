@@ -0,0 +1,14 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Notes fetched by id, in the order requested")
+public record NoteBatch(
+        @Schema(description = "Notes that were found")
+        List<Note> items,
+
+        @Schema(description = "Requested ids with no matching note")
+        List<Long> missingIds
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.demo.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A row from the change feed: the note as stored, plus its deletion time when it is a tombstone.
+ */
+public record NoteChange(
+        Note note,
+        LocalDateTime deletedAt
+) {
+
+    public boolean deleted() {
+        return deletedAt != null;
+    }
+}
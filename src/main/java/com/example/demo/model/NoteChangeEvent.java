@@ -0,0 +1,23 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+
+@Schema(description = "A note was created, updated or deleted")
+public record NoteChangeEvent(
+        @Schema(description = "Kind of change", example = "updated", allowableValues = {"created", "updated", "deleted"})
+        String type,
+
+        @Schema(description = "Identifier of the changed note", example = "1")
+        Long noteId,
+
+        @Schema(description = "Email of the note owner", example = "john.doe@example.com")
+        String ownerEmail,
+
+        @Schema(description = "Version after the change", example = "3")
+        Long version,
+
+        @Schema(description = "Update timestamp after the change", example = "2024-01-15T14:45:00")
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,38 @@
+package com.example.demo.model;
+
+import com.example.demo.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record NoteCursor(
+        LocalDateTime updatedAt,
+        long noteId
+) {
+
+    private static final String SEPARATOR = "|";
+
+    public static NoteCursor of(Note note) {
+        return new NoteCursor(note.getUpdatedAt(), note.getNoteId());
+    }
+
+    public String encode() {
+        String raw = updatedAt + SEPARATOR + noteId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static NoteCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException(token);
+            }
+            return new NoteCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
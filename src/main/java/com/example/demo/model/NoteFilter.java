@@ -0,0 +1,13 @@
+package com.example.demo.model;
+
+import java.time.LocalDateTime;
+
+public record NoteFilter(
+        String ownerEmail,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo,
+        LocalDateTime updatedFrom,
+        LocalDateTime updatedTo,
+        String owner
+) {
+}
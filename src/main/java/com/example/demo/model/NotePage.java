@@ -0,0 +1,14 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "A page of notes ordered by last update, newest first")
+public record NotePage(
+        @Schema(description = "Notes in this page")
+        List<Note> items,
+
+        @Schema(description = "Opaque cursor for the next page, absent on the last page")
+        String nextCursor
+) {
+}
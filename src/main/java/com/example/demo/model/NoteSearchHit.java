@@ -0,0 +1,24 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+
+@Schema(description = "A note matching a full-text search")
+public record NoteSearchHit(
+        @Schema(description = "Unique identifier for the note", example = "1")
+        Long noteId,
+
+        @Schema(description = "Title of the note", example = "Meeting Notes")
+        String title,
+
+        @Schema(description = "Content fragments around the matches, highlighted with <mark> tags",
+                example = "Discussed project <mark>requirements</mark>")
+        String snippet,
+
+        @Schema(description = "Relevance score, higher is better", example = "0.6079")
+        double rank,
+
+        @Schema(description = "Last update timestamp", example = "2024-01-15T14:45:00")
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,14 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "A page of full-text search results ordered by relevance")
+public record NoteSearchResult(
+        @Schema(description = "Matching notes in this page")
+        List<NoteSearchHit> items,
+
+        @Schema(description = "Offset to request the next page, absent on the last page", example = "20")
+        Integer nextOffset
+) {
+}
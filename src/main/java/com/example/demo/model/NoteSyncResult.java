@@ -0,0 +1,20 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Notes created, updated or deleted since the supplied watermark, oldest change first")
+public record NoteSyncResult(
+        @Schema(description = "Notes created or updated since the watermark")
+        List<Note> changed,
+
+        @Schema(description = "Notes deleted since the watermark")
+        List<NoteTombstone> deleted,
+
+        @Schema(description = "Opaque watermark to send as 'since' on the next sync; unchanged when nothing changed")
+        String watermark,
+
+        @Schema(description = "True when more changes are waiting; sync again immediately with the new watermark")
+        boolean hasMore
+) {
+}
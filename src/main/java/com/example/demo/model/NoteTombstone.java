@@ -0,0 +1,14 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+
+@Schema(description = "Marker for a note deleted since the client's watermark")
+public record NoteTombstone(
+        @Schema(description = "Identifier of the deleted note", example = "1")
+        Long noteId,
+
+        @Schema(description = "Deletion timestamp", example = "2024-01-15T14:45:00")
+        LocalDateTime deletedAt
+) {
+}
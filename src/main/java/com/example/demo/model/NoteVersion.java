@@ -0,0 +1,13 @@
+package com.example.demo.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Just the freshness columns of a note, enough to answer a conditional GET without loading it.
+ */
+public record NoteVersion(
+        Long noteId,
+        Long version,
+        LocalDateTime updatedAt
+) {
+}
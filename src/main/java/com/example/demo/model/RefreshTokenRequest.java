@@ -0,0 +1,12 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+@Schema(description = "Request to exchange a refresh token for new tokens")
+public record RefreshTokenRequest(
+        @NotBlank
+        @Schema(description = "Refresh token from a previous login or refresh")
+        String refreshToken
+) {
+}
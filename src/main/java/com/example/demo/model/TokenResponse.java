@@ -0,0 +1,19 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Issued bearer tokens")
+public record TokenResponse(
+        @Schema(description = "Short-lived access token, sent as 'Authorization: Bearer <token>'")
+        String accessToken,
+
+        @Schema(description = "Long-lived token used to obtain a new access token")
+        String refreshToken,
+
+        @Schema(description = "Token type", example = "Bearer")
+        String tokenType,
+
+        @Schema(description = "Access token lifetime in seconds", example = "900")
+        long expiresIn
+) {
+}
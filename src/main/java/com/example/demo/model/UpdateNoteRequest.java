@@ -1,7 +1,13 @@
 package com.example.demo.model;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
 public record UpdateNoteRequest(
         AuthRequest auth,
+
+        @NotNull
+        @Valid
         Note note
 ) {
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package com.example.demo.ratelimit;
+
+import com.example.demo.model.AppRole;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Limits per role and route group, e.g. {@code rate-limit.roles.user.bulk.permits-per-second=1}.
+ * Unauthenticated callers are keyed by client address and use {@code rate-limit.anonymous.*};
+ * the address is taken from {@code X-Forwarded-For} only behind one of {@code trusted-proxies}
+ * (IP addresses or CIDR ranges). A route group with no limit configured is not limited.
+ */
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(
+        Duration idleTimeout,
+        long maxKeys,
+        Map<AppRole, Map<RateLimitedRoute, Limit>> roles,
+        Map<RateLimitedRoute, Limit> anonymous,
+        List<String> trustedProxies) {
+
+    public RateLimitProperties {
+        idleTimeout = idleTimeout == null ? Duration.ofMinutes(10) : idleTimeout;
+        maxKeys = maxKeys <= 0 ? 100_000 : maxKeys;
+        roles = roles == null ? Map.of() : roles;
+        anonymous = anonymous == null ? Map.of() : anonymous;
+        trustedProxies = trustedProxies == null ? List.of() : trustedProxies;
+    }
+
+    public record Limit(double permitsPerSecond, int burst) {
+    }
+}
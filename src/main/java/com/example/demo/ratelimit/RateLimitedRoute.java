@@ -0,0 +1,49 @@
+package com.example.demo.ratelimit;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * Route groups that get a bucket of their own, so a client draining its bulk allowance can
+ * still read and list notes.
+ */
+public enum RateLimitedRoute {
+    AUTH,
+    LIST,
+    READ,
+    WRITE,
+    BULK,
+    EXPORT;
+
+    private static final String API_PREFIX = "/api/v1/";
+    private static final String AUTH_PREFIX = "/api/v1/auth";
+    private static final String NOTES = "/api/v1/notes";
+    private static final String USERS = "/api/v1/user";
+
+    /**
+     * Classifies a request without allocating; returns {@code null} for paths outside the API
+     * (actuator, docs), which are not limited.
+     */
+    public static RateLimitedRoute of(HttpMethod method, String path) {
+        if (!path.startsWith(API_PREFIX)) {
+            return null;
+        }
+        // Creating a user hashes a password, so it shares the credential bucket with login
+        if (path.startsWith(AUTH_PREFIX) || HttpMethod.POST.equals(method) && (path.equals(USERS) || path.equals(USERS + "/"))) {
+            return AUTH;
+        }
+        boolean read = HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+        if (path.startsWith(NOTES)) {
+            int offset = NOTES.length();
+            if (path.startsWith("/bulk", offset)) {
+                return BULK;
+            }
+            if (path.startsWith("/export", offset) || path.startsWith("/sync", offset)) {
+                return EXPORT;
+            }
+            if (read && (path.length() <= offset + 1 || path.startsWith("/search", offset))) {
+                return LIST;
+            }
+        }
+        return read ? READ : WRITE;
+    }
+}
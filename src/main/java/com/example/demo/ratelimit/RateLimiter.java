@@ -0,0 +1,144 @@
+package com.example.demo.ratelimit;
+
+import com.example.demo.exception.RateLimitExceededException;
+import com.example.demo.model.AppRole;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets kept as the generic cell rate algorithm: each bucket is a single "theoretical
+ * arrival time" in an {@link AtomicLongArray} slot (one array per caller, one slot per route
+ * group), updated with a CAS loop. Beyond the key string the caller passes in, a permitted
+ * request on a known caller allocates nothing.
+ * Callers idle for longer than the idle timeout are evicted; by then their buckets are full
+ * again anyway, so eviction never changes a decision.
+ */
+public class RateLimiter {
+
+    public static final String USER_KEY_PREFIX = "user:";
+    public static final String ADDRESS_KEY_PREFIX = "address:";
+    public static final String CREDENTIALS_KEY_PREFIX = "credentials:";
+
+    private static final RateLimitedRoute[] ROUTES = RateLimitedRoute.values();
+    private static final int ANONYMOUS_TIER = AppRole.values().length;
+
+    private final Cache<String, AtomicLongArray> buckets;
+    private final Function<String, AtomicLongArray> newBuckets = key -> new AtomicLongArray(ROUTES.length);
+    private final long[][] intervalNanos;
+    private final long[][] toleranceNanos;
+    private final Counter[] rejected;
+    private final LongSupplier nanoClock;
+    private final long origin;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxKeys())
+                .expireAfterAccess(properties.idleTimeout())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate-limit.buckets");
+        this.intervalNanos = new long[ANONYMOUS_TIER + 1][ROUTES.length];
+        this.toleranceNanos = new long[ANONYMOUS_TIER + 1][ROUTES.length];
+        for (AppRole role : AppRole.values()) {
+            configure(role.ordinal(), properties.roles().getOrDefault(role, Map.of()));
+        }
+        configure(ANONYMOUS_TIER, properties.anonymous());
+        this.rejected = new Counter[ROUTES.length];
+        for (RateLimitedRoute route : ROUTES) {
+            rejected[route.ordinal()] = Counter.builder("rate-limit.rejected")
+                    .description("Requests rejected with 429 by the rate limiter")
+                    .tag("route", route.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    private void configure(int tier, Map<RateLimitedRoute, RateLimitProperties.Limit> limits) {
+        limits.forEach((route, limit) -> {
+            if (limit.permitsPerSecond() <= 0) {
+                return;
+            }
+            long interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limit.permitsPerSecond()));
+            intervalNanos[tier][route.ordinal()] = interval;
+            toleranceNanos[tier][route.ordinal()] = interval * (Math.max(1, limit.burst()) - 1);
+        });
+    }
+
+    /**
+     * Takes one permit for the caller on the route. Returns 0 when permitted, otherwise the
+     * nanoseconds until a permit becomes available; a denied request consumes nothing.
+     *
+     * @param role the caller's role, or {@code null} for an unauthenticated caller
+     */
+    public long tryAcquire(String key, AppRole role, RateLimitedRoute route) {
+        int tier = role == null ? ANONYMOUS_TIER : role.ordinal();
+        int slot = route.ordinal();
+        long interval = intervalNanos[tier][slot];
+        if (interval == 0) {
+            return 0;
+        }
+        long tolerance = toleranceNanos[tier][slot];
+        AtomicLongArray state = buckets.get(key, newBuckets);
+        while (true) {
+            long now = nanoClock.getAsLong() - origin;
+            long arrival = state.get(slot);
+            long start = Math.max(arrival, now);
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                rejected[slot].increment();
+                return wait;
+            }
+            if (state.compareAndSet(slot, arrival, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Charges a user who was only identified after the filter ran (request-body credentials sent
+     * behind a shared Basic principal) for the route the filter recorded in the context. Errors
+     * with {@link RateLimitExceededException} when the user is over the limit.
+     */
+    public Mono<Void> acquireDeferred(String username, AppRole role) {
+        return Mono.deferContextual(context -> {
+            RateLimitedRoute route = context.getOrDefault(RateLimitedRoute.class, null);
+            if (route == null) {
+                return Mono.empty();
+            }
+            return toMono(tryAcquire(USER_KEY_PREFIX + username, role, route));
+        });
+    }
+
+    /**
+     * Charges one password check against the claimed username before any hashing is done, using
+     * the unauthenticated {@link RateLimitedRoute#AUTH} limit: whoever sends the credentials has
+     * not proven anything yet. This bounds guessing against one account from any number of
+     * addresses. Errors with {@link RateLimitExceededException} when the account is over the limit.
+     */
+    public Mono<Void> acquireCredentialCheck(String username) {
+        return Mono.defer(() -> toMono(tryAcquire(CREDENTIALS_KEY_PREFIX + username, null, RateLimitedRoute.AUTH)));
+    }
+
+    private static Mono<Void> toMono(long waitNanos) {
+        return waitNanos == 0 ? Mono.empty() : Mono.error(new RateLimitExceededException(retryAfterSeconds(waitNanos)));
+    }
+
+    /** Retry-After in whole seconds, rounded up so a client retrying on time is never early. */
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.ratelimit;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the client address of a request that may have passed through reverse proxies.
+ * {@code X-Forwarded-For} is only believed when the connection comes from a configured proxy,
+ * and is then walked from the right, skipping further trusted hops, so a client cannot pick
+ * its own rate-limit bucket by sending the header itself.
+ */
+public class TrustedProxies {
+
+    private final List<Range> ranges;
+
+    public TrustedProxies(List<String> cidrs) {
+        List<Range> parsed = new ArrayList<>(cidrs.size());
+        for (String cidr : cidrs) {
+            if (!cidr.isBlank()) {
+                parsed.add(Range.parse(cidr.trim()));
+            }
+        }
+        this.ranges = List.copyOf(parsed);
+    }
+
+    /**
+     * @param remote        the address of the peer that opened the connection, or {@code null}
+     * @param forwardedFor  every {@code X-Forwarded-For} header value, in order
+     */
+    public String clientAddress(InetAddress remote, List<String> forwardedFor) {
+        if (remote == null) {
+            return "unknown";
+        }
+        if (!isTrusted(remote) || forwardedFor == null || forwardedFor.isEmpty()) {
+            return remote.getHostAddress();
+        }
+        List<String> hops = new ArrayList<>();
+        for (String header : forwardedFor) {
+            for (String hop : header.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        String client = remote.getHostAddress();
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            InetAddress hop = parseLiteral(hops.get(i));
+            if (hop == null) {
+                return client;
+            }
+            client = hop.getHostAddress();
+            if (!isTrusted(hop)) {
+                return client;
+            }
+        }
+        return client;
+    }
+
+    boolean isTrusted(InetAddress address) {
+        for (Range range : ranges) {
+            if (range.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Only IP literals; anything that would need a DNS lookup is treated as unparseable
+    private static InetAddress parseLiteral(String value) {
+        String literal = value.startsWith("[") && value.endsWith("]") ? value.substring(1, value.length() - 1) : value;
+        boolean ipv6 = literal.indexOf(':') >= 0;
+        if (literal.isEmpty() || !literal.chars().allMatch(c -> ipv6 ? Character.digit(c, 16) >= 0 || c == ':' || c == '.'
+                : c == '.' || Character.isDigit(c))) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(literal);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private record Range(byte[] network, int prefixLength) {
+
+        static Range parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            InetAddress address = parseLiteral(slash < 0 ? cidr : cidr.substring(0, slash));
+            if (address == null) {
+                throw new IllegalArgumentException("Invalid trusted proxy address: " + cidr);
+            }
+            byte[] network = address.getAddress();
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("Invalid prefix length in trusted proxy range: " + cidr);
+            }
+            return new Range(network, prefixLength);
+        }
+
+        boolean contains(InetAddress address) {
+            byte[] candidate = address.getAddress();
+            if (candidate.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (candidate[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xff << (8 - remainingBits);
+            return (candidate[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
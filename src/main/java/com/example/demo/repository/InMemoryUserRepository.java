@@ -0,0 +1,56 @@
+package com.example.demo.repository;
+
+import com.example.demo.exception.UserAlreadyExistsException;
+import com.example.demo.model.UserDetails;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+@ConditionalOnProperty(name = "users.repository", havingValue = "memory")
+@Slf4j
+public class InMemoryUserRepository implements UserRepository {
+    private final Map<String, UserDetails> users = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<UserDetails> insert(UserDetails user) {
+        log.debug("Inserting user into repository: {}", user.name());
+        if (users.putIfAbsent(user.name(), user) != null) {
+            return Mono.error(new UserAlreadyExistsException(user.name()));
+        }
+        return Mono.just(user);
+    }
+
+    @Override
+    public Mono<UserDetails> update(UserDetails user) {
+        log.debug("Updating user in repository: {}", user.name());
+        return Mono.justOrEmpty(users.computeIfPresent(user.name(), (name, existing) -> user));
+    }
+
+    @Override
+    public Mono<UserDetails> findByName(String name) {
+        log.debug("Finding user by name: {}", name);
+        return Mono.justOrEmpty(users.get(name));
+    }
+
+    @Override
+    public Flux<UserDetails> findAll() {
+        log.debug("Finding all users, count: {}", users.size());
+        return Flux.fromIterable(users.values());
+    }
+
+    @Override
+    public Mono<Boolean> deleteByName(String name) {
+        log.debug("Deleting user from repository: {}", name);
+        return Mono.just(users.remove(name) != null);
+    }
+
+    @Override
+    public Mono<Boolean> existsByName(String name) {
+        return Mono.just(users.containsKey(name));
+    }
+}
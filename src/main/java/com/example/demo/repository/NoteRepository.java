@@ -1,9 +1,26 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Note;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
 
 @Repository
-public interface NoteRepository extends ReactiveCrudRepository<Note, Long> {
+public interface NoteRepository extends ReactiveCrudRepository<Note, Long>, NoteRepositoryCustom {
+
+    @Override
+    @Query("SELECT note_id, title, content, created_at, updated_at, owner_name, owner_email, version, user_id "
+            + "FROM note WHERE note_id = :id AND deleted_at IS NULL")
+    Mono<Note> findById(Long id);
+
+    @Override
+    @Query("SELECT EXISTS (SELECT 1 FROM note WHERE note_id = :id AND deleted_at IS NULL)")
+    Mono<Boolean> existsById(Long id);
+
+    @Modifying
+    @Query("UPDATE note SET deleted_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP, version = version + 1 "
+            + "WHERE note_id = :noteId AND deleted_at IS NULL")
+    Mono<Integer> deleteByNoteId(long noteId);
 }
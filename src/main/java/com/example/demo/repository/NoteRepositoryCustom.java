@@ -0,0 +1,36 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Note;
+import com.example.demo.model.NoteChange;
+import com.example.demo.model.NoteCursor;
+import com.example.demo.model.NoteFilter;
+import com.example.demo.model.NoteSearchHit;
+import com.example.demo.model.NoteVersion;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+public interface NoteRepositoryCustom {
+
+    Mono<NoteVersion> findVersion(long noteId);
+
+    Flux<Note> findByIds(Collection<Long> noteIds);
+
+    Mono<Long> findUserId(String username);
+
+    Flux<Note> findPage(NoteFilter filter, Long userId, NoteCursor after, int limit);
+
+    Flux<Note> streamAll(String ownerEmail, int fetchSize);
+
+    Flux<Note> insertAll(List<Note> notes, String ownerUsername);
+
+    Mono<Note> update(long noteId, Note note, Collection<Long> expectedVersions);
+
+    Mono<Note> patch(long noteId, Note note, Collection<Long> expectedVersions);
+
+    Flux<NoteSearchHit> search(String tsQuery, String ownerEmail, int limit, int offset);
+
+    Flux<NoteChange> findChangesSince(NoteCursor since, String ownerEmail, Duration settleWindow, int limit);
+}
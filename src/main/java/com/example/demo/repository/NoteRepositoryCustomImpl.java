@@ -0,0 +1,273 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Note;
+import com.example.demo.model.NoteChange;
+import com.example.demo.model.NoteCursor;
+import com.example.demo.model.NoteFilter;
+import com.example.demo.model.NoteSearchHit;
+import com.example.demo.model.NoteVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class NoteRepositoryCustomImpl implements NoteRepositoryCustom {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.desc("noteId"));
+
+    // Explicit column list so the generated search_vector column is never shipped to the client
+    private static final String NOTE_COLUMNS =
+            "note_id, title, content, created_at, updated_at, owner_name, owner_email, version, user_id";
+    private static final String[] NOTE_COLUMN_NAMES = NOTE_COLUMNS.split(", ");
+
+    private static final String LIVE = "deleted_at IS NULL";
+
+    private static final String FIND_VERSION =
+            "SELECT note_id, version, updated_at FROM note WHERE note_id = :noteId AND " + LIVE;
+
+    private static final String FIND_USER_ID = "SELECT id FROM user_details WHERE name = :name";
+
+    private static final String FIND_BY_IDS =
+            "SELECT " + NOTE_COLUMNS + " FROM note WHERE note_id = ANY(:noteIds) AND " + LIVE;
+
+    private static final String STREAM_ALL = "SELECT " + NOTE_COLUMNS + " FROM note WHERE " + LIVE + " ORDER BY note_id";
+    private static final String STREAM_BY_OWNER = "SELECT " + NOTE_COLUMNS
+            + " FROM note WHERE owner_email = :ownerEmail AND " + LIVE + " ORDER BY note_id";
+
+    // Rows written within the settle window are held back: updated_at is taken at statement start, so a
+    // slow writer could otherwise commit a timestamp below a watermark a client has already moved past.
+    private static final String CHANGES_TEMPLATE = "SELECT " + NOTE_COLUMNS + ", deleted_at FROM note"
+            + " WHERE updated_at < LOCALTIMESTAMP - make_interval(secs => :settleSeconds)%s"
+            + " ORDER BY updated_at, note_id LIMIT :limit";
+
+    private static final String SEARCH_TEMPLATE = """
+            SELECT n.note_id, n.title, n.updated_at, n.rank,
+                   ts_headline('english', coalesce(n.content, ''), n.tsq,
+                               'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=20, MinWords=5') AS snippet
+            FROM (
+                SELECT note_id, title, content, updated_at, ts_rank(search_vector, tsq) AS rank, tsq
+                FROM note, to_tsquery('english', :query) tsq
+                WHERE search_vector @@ tsq AND deleted_at IS NULL%s
+                ORDER BY rank DESC, note_id DESC
+                LIMIT :limit OFFSET :offset
+            ) n
+            ORDER BY n.rank DESC, n.note_id DESC""";
+    private static final String SEARCH = SEARCH_TEMPLATE.formatted("");
+    private static final String SEARCH_BY_OWNER = SEARCH_TEMPLATE.formatted(" AND owner_email = :ownerEmail");
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO note (title, content, created_at, updated_at, owner_name, owner_email, user_id) VALUES ";
+    private static final int INSERT_COLUMNS = 5;
+
+    private final R2dbcEntityTemplate template;
+
+    @Override
+    public Mono<NoteVersion> findVersion(long noteId) {
+        return template.getDatabaseClient().sql(FIND_VERSION)
+                .bind("noteId", noteId)
+                .map(row -> new NoteVersion(
+                        ((Number) row.get("note_id")).longValue(),
+                        ((Number) row.get("version")).longValue(),
+                        row.get("updated_at", LocalDateTime.class)))
+                .one();
+    }
+
+    @Override
+    public Flux<Note> findByIds(Collection<Long> noteIds) {
+        if (noteIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return template.getDatabaseClient().sql(FIND_BY_IDS)
+                .bind("noteIds", noteIds.toArray(Long[]::new))
+                .map((row, metadata) -> template.getConverter().read(Note.class, row, metadata))
+                .all();
+    }
+
+    @Override
+    public Mono<Long> findUserId(String username) {
+        return template.getDatabaseClient().sql(FIND_USER_ID)
+                .bind("name", username)
+                .map(row -> ((Number) row.get("id")).longValue())
+                .one();
+    }
+
+    // With a user id the query is confined to that user's rows, which is a single partition when note is hash-partitioned
+    @Override
+    public Flux<Note> findPage(NoteFilter filter, Long userId, NoteCursor after, int limit) {
+        Criteria criteria = filterCriteria(filter);
+        if (userId != null) {
+            criteria = criteria.and(Criteria.where("userId").is(userId));
+        }
+        if (after != null) {
+            criteria = criteria.and(Criteria.where("updatedAt").lessThan(after.updatedAt())
+                    .or(Criteria.where("updatedAt").is(after.updatedAt()).and("noteId").lessThan(after.noteId())));
+        }
+        return template.select(Query.query(criteria).columns(NOTE_COLUMN_NAMES).sort(NEWEST_FIRST).limit(limit), Note.class);
+    }
+
+    @Override
+    public Flux<Note> streamAll(String ownerEmail, int fetchSize) {
+        DatabaseClient.GenericExecuteSpec spec = ownerEmail == null
+                ? template.getDatabaseClient().sql(STREAM_ALL)
+                : template.getDatabaseClient().sql(STREAM_BY_OWNER).bind("ownerEmail", ownerEmail);
+        return spec.filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> template.getConverter().read(Note.class, row, metadata))
+                .all();
+    }
+
+    @Override
+    public Flux<Note> insertAll(List<Note> notes, String ownerUsername) {
+        if (notes.isEmpty()) {
+            return Flux.empty();
+        }
+        int ownerIndex = notes.size() * INSERT_COLUMNS;
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + notes.size() * 96).append(INSERT_PREFIX);
+        for (int i = 0; i < notes.size(); i++) {
+            int p = i * INSERT_COLUMNS;
+            sql.append(i == 0 ? "(" : ", (")
+                    .append('$').append(p + 1).append(", ")
+                    .append('$').append(p + 2).append(", ")
+                    .append("COALESCE($").append(p + 3).append(", CURRENT_TIMESTAMP), ")
+                    .append("CURRENT_TIMESTAMP, ")
+                    .append('$').append(p + 4).append(", ")
+                    .append('$').append(p + 5).append(", ")
+                    .append("(SELECT id FROM user_details WHERE name = $").append(ownerIndex + 1).append("))");
+        }
+        sql.append(" RETURNING ").append(NOTE_COLUMNS);
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql.toString());
+        for (int i = 0; i < notes.size(); i++) {
+            Note note = notes.get(i);
+            int p = i * INSERT_COLUMNS;
+            spec = bind(spec, p, note.getTitle(), String.class);
+            spec = bind(spec, p + 1, note.getContent(), String.class);
+            spec = bind(spec, p + 2, note.getCreatedAt(), LocalDateTime.class);
+            spec = bind(spec, p + 3, note.getOwnerName(), String.class);
+            spec = bind(spec, p + 4, note.getOwnerEmail(), String.class);
+        }
+        spec = bind(spec, ownerIndex, ownerUsername, String.class);
+        return spec.map((row, metadata) -> template.getConverter().read(Note.class, row, metadata))
+                .all();
+    }
+
+    @Override
+    public Mono<Note> update(long noteId, Note note, Collection<Long> expectedVersions) {
+        Map<String, Parameter> columns = new LinkedHashMap<>();
+        columns.put("title", Parameter.fromOrEmpty(note.getTitle(), String.class));
+        columns.put("content", Parameter.fromOrEmpty(note.getContent(), String.class));
+        return updateColumns(noteId, columns, expectedVersions);
+    }
+
+    @Override
+    public Mono<Note> patch(long noteId, Note note, Collection<Long> expectedVersions) {
+        Map<String, Parameter> columns = new LinkedHashMap<>();
+        if (note.getTitle() != null) columns.put("title", Parameter.from(note.getTitle()));
+        if (note.getContent() != null) columns.put("content", Parameter.from(note.getContent()));
+        if (note.getOwnerName() != null) columns.put("owner_name", Parameter.from(note.getOwnerName()));
+        if (note.getOwnerEmail() != null) columns.put("owner_email", Parameter.from(note.getOwnerEmail()));
+        return updateColumns(noteId, columns, expectedVersions);
+    }
+
+    // Any of the expected versions may match; an empty collection matches none
+    private Mono<Note> updateColumns(long noteId, Map<String, Parameter> columns, Collection<Long> expectedVersions) {
+        StringBuilder sql = new StringBuilder("UPDATE note SET ");
+        columns.keySet().forEach(column -> sql.append(column).append(" = :").append(column).append(", "));
+        sql.append("updated_at = CURRENT_TIMESTAMP, version = version + 1 WHERE note_id = :noteId AND ").append(LIVE);
+        if (expectedVersions != null) {
+            sql.append(" AND version = ANY(:expectedVersions)");
+        }
+        sql.append(" RETURNING ").append(NOTE_COLUMNS);
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql.toString())
+                .bind("noteId", noteId);
+        for (Map.Entry<String, Parameter> column : columns.entrySet()) {
+            spec = spec.bind(column.getKey(), column.getValue());
+        }
+        if (expectedVersions != null) {
+            spec = spec.bind("expectedVersions", expectedVersions.toArray(new Long[0]));
+        }
+        return spec.map((row, metadata) -> template.getConverter().read(Note.class, row, metadata))
+                .one();
+    }
+
+    @Override
+    public Flux<NoteSearchHit> search(String tsQuery, String ownerEmail, int limit, int offset) {
+        DatabaseClient.GenericExecuteSpec spec = ownerEmail == null
+                ? template.getDatabaseClient().sql(SEARCH)
+                : template.getDatabaseClient().sql(SEARCH_BY_OWNER).bind("ownerEmail", ownerEmail);
+        return spec.bind("query", tsQuery)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(row -> new NoteSearchHit(
+                        ((Number) row.get("note_id")).longValue(),
+                        row.get("title", String.class),
+                        row.get("snippet", String.class),
+                        ((Number) row.get("rank")).doubleValue(),
+                        row.get("updated_at", LocalDateTime.class)))
+                .all();
+    }
+
+    @Override
+    public Flux<NoteChange> findChangesSince(NoteCursor since, String ownerEmail, Duration settleWindow, int limit) {
+        StringBuilder conditions = new StringBuilder();
+        if (since == null) {
+            conditions.append(" AND ").append(LIVE);
+        } else {
+            conditions.append(" AND (updated_at, note_id) > (:sinceUpdatedAt, :sinceNoteId)");
+        }
+        if (ownerEmail != null) {
+            conditions.append(" AND owner_email = :ownerEmail");
+        }
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient()
+                .sql(CHANGES_TEMPLATE.formatted(conditions))
+                .bind("settleSeconds", settleWindow.toMillis() / 1000.0)
+                .bind("limit", limit);
+        if (since != null) {
+            spec = spec.bind("sinceUpdatedAt", since.updatedAt()).bind("sinceNoteId", since.noteId());
+        }
+        if (ownerEmail != null) {
+            spec = spec.bind("ownerEmail", ownerEmail);
+        }
+        return spec.map((row, metadata) -> new NoteChange(
+                        template.getConverter().read(Note.class, row, metadata),
+                        row.get("deleted_at", LocalDateTime.class)))
+                .all();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, int index,
+                                                          Object value, Class<?> type) {
+        return value == null ? spec.bindNull(index, type) : spec.bind(index, value);
+    }
+
+    private Criteria filterCriteria(NoteFilter filter) {
+        Criteria criteria = Criteria.where("deleted_at").isNull();
+        if (filter.ownerEmail() != null) {
+            criteria = criteria.and(Criteria.where("ownerEmail").is(filter.ownerEmail()));
+        }
+        if (filter.createdFrom() != null) {
+            criteria = criteria.and(Criteria.where("createdAt").greaterThanOrEquals(filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            criteria = criteria.and(Criteria.where("createdAt").lessThan(filter.createdTo()));
+        }
+        if (filter.updatedFrom() != null) {
+            criteria = criteria.and(Criteria.where("updatedAt").greaterThanOrEquals(filter.updatedFrom()));
+        }
+        if (filter.updatedTo() != null) {
+            criteria = criteria.and(Criteria.where("updatedAt").lessThan(filter.updatedTo()));
+        }
+        return criteria;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.repository;
+
+import com.example.demo.exception.UserAlreadyExistsException;
+import com.example.demo.model.AppRole;
+import com.example.demo.model.UserDetails;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+
+/**
+ * Stores users in the user_details table. Lookups by name go through a short-lived local cache
+ * so authentication does not hit the database on every request; the TTL bounds how long
+ * another instance's change can go unnoticed.
+ */
+@Repository
+@ConditionalOnProperty(name = "users.repository", havingValue = "r2dbc", matchIfMissing = true)
+@Slf4j
+public class R2dbcUserRepository implements UserRepository {
+
+    private static final String COLUMNS = "name, password, user_role, active";
+
+    // DO NOTHING returns no row on a duplicate name, which surfaces as UserAlreadyExistsException
+    private static final String INSERT = """
+            INSERT INTO user_details (name, password, user_role, active)
+            VALUES (:name, :password, :userRole, :active)
+            ON CONFLICT (name) DO NOTHING
+            RETURNING\s""" + COLUMNS;
+    private static final String UPDATE = """
+            UPDATE user_details
+            SET password = :password, user_role = :userRole, active = :active
+            WHERE name = :name
+            RETURNING\s""" + COLUMNS;
+    private static final String FIND_BY_NAME = "SELECT " + COLUMNS + " FROM user_details WHERE name = :name";
+    private static final String FIND_ALL = "SELECT " + COLUMNS + " FROM user_details ORDER BY name";
+    private static final String DELETE_BY_NAME = "DELETE FROM user_details WHERE name = :name";
+
+    private final DatabaseClient databaseClient;
+    private final AsyncCache<String, UserDetails> usersByName;
+
+    public R2dbcUserRepository(DatabaseClient databaseClient,
+                               MeterRegistry meterRegistry,
+                               @Value("${users.cache.max-size:10000}") long maxSize,
+                               @Value("${users.cache.ttl:30s}") Duration ttl) {
+        this.databaseClient = databaseClient;
+        this.usersByName = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByName.synchronous(), "users");
+    }
+
+    @Override
+    public Mono<UserDetails> insert(UserDetails user) {
+        log.debug("Inserting user into database: {}", user.name());
+        return write(INSERT, user)
+                .switchIfEmpty(Mono.error(() -> new UserAlreadyExistsException(user.name())));
+    }
+
+    @Override
+    public Mono<UserDetails> update(UserDetails user) {
+        log.debug("Updating user in database: {}", user.name());
+        return write(UPDATE, user);
+    }
+
+    @Override
+    public Mono<UserDetails> findByName(String name) {
+        log.debug("Finding user by name: {}", name);
+        return Mono.fromFuture(() -> usersByName.get(name, (key, executor) -> databaseClient.sql(FIND_BY_NAME)
+                .bind("name", key)
+                .map(R2dbcUserRepository::toUser)
+                .one()
+                .toFuture()), true);
+    }
+
+    @Override
+    public Flux<UserDetails> findAll() {
+        log.debug("Finding all users");
+        return databaseClient.sql(FIND_ALL)
+                .map(R2dbcUserRepository::toUser)
+                .all();
+    }
+
+    @Override
+    public Mono<Boolean> deleteByName(String name) {
+        log.debug("Deleting user from database: {}", name);
+        return databaseClient.sql(DELETE_BY_NAME)
+                .bind("name", name)
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(deleted -> usersByName.synchronous().invalidate(name))
+                .map(deleted -> deleted > 0);
+    }
+
+    @Override
+    public Mono<Boolean> existsByName(String name) {
+        return findByName(name).hasElement();
+    }
+
+    private Mono<UserDetails> write(String sql, UserDetails user) {
+        return databaseClient.sql(sql)
+                .bind("name", user.name())
+                .bind("password", user.password())
+                .bind("userRole", user.userRole().name())
+                .bind("active", Parameter.fromOrEmpty(user.active(), Boolean.class))
+                .map(R2dbcUserRepository::toUser)
+                .one()
+                .doOnNext(saved -> usersByName.synchronous().invalidate(saved.name()));
+    }
+
+    private static UserDetails toUser(Readable row) {
+        return new UserDetails(
+                row.get("name", String.class),
+                row.get("password", String.class),
+                AppRole.valueOf(row.get("user_role", String.class)),
+                row.get("active", Boolean.class));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.routing;
+
+import com.example.demo.security.RequestCaller;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+import java.util.function.Function;
+
+/**
+ * Reactor context entries read by {@link ReadWriteRoutingConnectionFactory} when a connection
+ * is requested. Work marked {@link #READ_ONLY} may be served by a replica; everything else goes
+ * to the primary. Work marked {@link #WRITE} by a known caller pins that caller's reads to the
+ * primary for the sticky window, so they always see their own writes. The caller is the end user
+ * in the request's {@link RequestCaller}, never the shared Basic principal.
+ */
+public final class DatabaseRoute {
+
+    static final Object INTENT_KEY = DatabaseRoute.class.getName() + ".intent";
+
+    enum Intent {
+        READ_ONLY,
+        WRITE
+    }
+
+    public static final Function<Context, Context> READ_ONLY = context -> context.put(INTENT_KEY, Intent.READ_ONLY);
+
+    public static final Function<Context, Context> WRITE = context -> context.put(INTENT_KEY, Intent.WRITE);
+
+    private DatabaseRoute() {
+    }
+
+    static String caller(ContextView context) {
+        return context.<RequestCaller>getOrEmpty(RequestCaller.class).map(RequestCaller::name).orElse(null);
+    }
+
+    /**
+     * The routing a read made under {@code context} needs, detached so it can be re-applied to
+     * work running elsewhere. Reads that go to the primary anyway all share one value, so
+     * results can be compared to group reads that may run together.
+     */
+    public static Function<Context, Context> forRead(ContextView context) {
+        if (context.getOrDefault(INTENT_KEY, null) != Intent.READ_ONLY) {
+            return ReadRoute.PRIMARY;
+        }
+        return new ReadRoute(Intent.READ_ONLY, caller(context));
+    }
+
+    private record ReadRoute(Intent intent, String caller) implements Function<Context, Context> {
+
+        private static final ReadRoute PRIMARY = new ReadRoute(null, null);
+
+        @Override
+        public Context apply(Context context) {
+            if (intent != null) {
+                context = context.put(INTENT_KEY, intent);
+            }
+            return caller == null ? context : context.put(RequestCaller.class, new RequestCaller(caller));
+        }
+    }
+}
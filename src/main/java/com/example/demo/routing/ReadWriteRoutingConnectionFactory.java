@@ -0,0 +1,201 @@
+package com.example.demo.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections requested for {@link DatabaseRoute#READ_ONLY} work to a healthy replica,
+ * chosen round-robin or by fewest acquired plus pending connections, and everything else to the
+ * primary. A replica is healthy when it answers the periodic check and its replay lag is within
+ * the limit; if none is, or acquiring from the chosen one fails, the read falls back to the
+ * primary. Unwraps to the primary so pool metrics and the acquire timer still see it.
+ */
+@Slf4j
+public class ReadWriteRoutingConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory>, Closeable {
+
+    // Zero when the replica has replayed everything it received, otherwise seconds since the last replayed commit
+    private static final String REPLICA_LAG_QUERY = "SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END, 0) AS lag_seconds";
+
+    private final ConnectionPool primary;
+    private final List<Replica> replicas;
+    private final boolean leastLoaded;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+    private final Disposable healthChecks;
+
+    public ReadWriteRoutingConnectionFactory(ConnectionPool primary,
+                                             List<ConnectionPool> replicaPools,
+                                             boolean leastLoaded,
+                                             Duration stickyWindow,
+                                             Duration healthCheckInterval,
+                                             Duration maxReplicaLag,
+                                             MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.leastLoaded = leastLoaded;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .maximumSize(100_000)
+                .build();
+        this.primaryRoutes = routeCounter(meterRegistry, "primary");
+        this.replicaRoutes = routeCounter(meterRegistry, "replica");
+        this.fallbackRoutes = routeCounter(meterRegistry, "fallback");
+        for (int i = 0; i < replicas.size(); i++) {
+            Gauge.builder("db.replica.healthy", replicas.get(i).healthy, healthy -> healthy.get() ? 1 : 0)
+                    .description("Whether the replica is currently eligible for reads")
+                    .tag("replica", Integer.toString(i))
+                    .register(meterRegistry);
+        }
+        double maxLagSeconds = maxReplicaLag.toMillis() / 1000.0;
+        this.healthChecks = Flux.interval(Duration.ZERO, healthCheckInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Flux.fromIterable(replicas)
+                        .flatMap(replica -> replica.check(maxLagSeconds, healthCheckInterval)))
+                .subscribe();
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("db.routing.connections")
+                .description("Connections handed out per routing target")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<? extends Connection> create() {
+        return Mono.deferContextual(this::route);
+    }
+
+    private Mono<? extends Connection> route(ContextView context) {
+        DatabaseRoute.Intent intent = context.getOrDefault(DatabaseRoute.INTENT_KEY, null);
+        String caller = DatabaseRoute.caller(context);
+        if (intent == DatabaseRoute.Intent.WRITE && caller != null) {
+            recentWriters.put(caller, Boolean.TRUE);
+        }
+        boolean sticky = caller != null && recentWriters.getIfPresent(caller) != null;
+        Replica replica = intent == DatabaseRoute.Intent.READ_ONLY && !sticky ? choose() : null;
+        if (replica == null) {
+            primaryRoutes.increment();
+            return primary.create();
+        }
+        replicaRoutes.increment();
+        return replica.pool.create()
+                .onErrorResume(error -> {
+                    replica.markDown(error.getMessage());
+                    fallbackRoutes.increment();
+                    return primary.create();
+                });
+    }
+
+    private Replica choose() {
+        int size = replicas.size();
+        if (leastLoaded) {
+            Replica best = null;
+            int bestLoad = Integer.MAX_VALUE;
+            for (Replica replica : replicas) {
+                int load = replica.load();
+                if (replica.healthy.get() && load < bestLoad) {
+                    best = replica;
+                    bestLoad = load;
+                }
+            }
+            return best;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy.get()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return primary.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return primary;
+    }
+
+    @Override
+    public Publisher<Void> close() {
+        healthChecks.dispose();
+        return Flux.concat(Flux.fromIterable(replicas).map(replica -> replica.pool.close()))
+                .then(primary.close());
+    }
+
+    private static final class Replica {
+
+        private final ConnectionPool pool;
+        private final AtomicBoolean healthy = new AtomicBoolean(true);
+
+        private Replica(ConnectionPool pool) {
+            this.pool = pool;
+        }
+
+        private int load() {
+            return pool.getMetrics()
+                    .map(metrics -> metrics.acquiredSize() + metrics.pendingAcquireSize())
+                    .orElse(0);
+        }
+
+        private Mono<Boolean> check(double maxLagSeconds, Duration timeout) {
+            return Mono.usingWhen(pool.create(),
+                            connection -> Mono.from(connection.createStatement(REPLICA_LAG_QUERY).execute())
+                                    .flatMap(result -> Mono.from(result.map((row, metadata) -> ((Number) row.get(0)).doubleValue()))),
+                            Connection::close)
+                    .map(lag -> {
+                        if (lag > maxLagSeconds) {
+                            log.warn("Replica lagging {}s behind the primary, taking it out of rotation", lag);
+                            return false;
+                        }
+                        return true;
+                    })
+                    .timeout(timeout)
+                    .onErrorResume(error -> {
+                        markDown(error.getMessage());
+                        return Mono.just(false);
+                    })
+                    .doOnNext(ok -> {
+                        if (ok && healthy.compareAndSet(false, true)) {
+                            log.info("Replica healthy again, returning it to rotation");
+                        } else if (!ok) {
+                            healthy.set(false);
+                        }
+                    });
+        }
+
+        private void markDown(String reason) {
+            if (healthy.compareAndSet(true, false)) {
+                log.warn("Replica unavailable, reads fall back to the primary: {}", reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+public class BearerTokenConverter implements ServerAuthenticationConverter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return Mono.empty();
+        }
+        return Mono.just(TokenAuthentication.unverified(authorization.substring(BEARER_PREFIX.length()).trim()));
+    }
+}
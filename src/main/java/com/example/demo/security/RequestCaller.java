@@ -0,0 +1,47 @@
+package com.example.demo.security;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import java.util.function.Function;
+
+/**
+ * The end user a request acts for, filled in once known: from a verified bearer token as the
+ * request enters the application, or by {@code AuthService} once credentials in the body verify.
+ * Callers sending body credentials all share one Basic principal, so that principal cannot stand
+ * in for the user in read-your-writes routing or request logs. Kept in the Reactor context under
+ * its class and, for logging after completion, as an exchange attribute under {@link #ATTRIBUTE}.
+ */
+public final class RequestCaller {
+
+    public static final String ATTRIBUTE = RequestCaller.class.getName();
+
+    private volatile String name;
+
+    public RequestCaller() {
+    }
+
+    public RequestCaller(String name) {
+        this.name = name;
+    }
+
+    /** The resolved user's name, or {@code null} while the request has not authenticated anyone. */
+    public String name() {
+        return name;
+    }
+
+    public void resolve(String name) {
+        this.name = name;
+    }
+
+    public Function<Context, Context> bind() {
+        return context -> context.put(RequestCaller.class, this);
+    }
+
+    /** Records {@code name} as the caller of the request whose context this runs in, if it has one. */
+    public static Mono<String> resolved(String name) {
+        return Mono.deferContextual(context -> {
+            context.<RequestCaller>getOrEmpty(RequestCaller.class).ifPresent(caller -> caller.resolve(name));
+            return Mono.just(name);
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import java.util.Collection;
+import java.util.List;
+
+public class TokenAuthentication extends AbstractAuthenticationToken {
+
+    private final String token;
+    private final String username;
+
+    private TokenAuthentication(String token, String username, Collection<? extends GrantedAuthority> authorities) {
+        super(authorities);
+        this.token = token;
+        this.username = username;
+    }
+
+    public static TokenAuthentication unverified(String token) {
+        return new TokenAuthentication(token, null, List.of());
+    }
+
+    public static TokenAuthentication verified(String token, TokenClaims claims) {
+        TokenAuthentication authentication = new TokenAuthentication(token, claims.username(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + claims.role().name())));
+        authentication.setAuthenticated(true);
+        return authentication;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return token;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return username;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class TokenAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final TokenService tokenService;
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String token = (String) authentication.getCredentials();
+        return Mono.justOrEmpty(tokenService.verify(token, TokenType.ACCESS))
+                .<Authentication>map(claims -> TokenAuthentication.verified(token, claims))
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Invalid or expired access token")));
+    }
+}
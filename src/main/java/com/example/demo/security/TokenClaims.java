@@ -0,0 +1,13 @@
+package com.example.demo.security;
+
+import com.example.demo.model.AppRole;
+import java.time.Instant;
+
+public record TokenClaims(
+        TokenType type,
+        String username,
+        AppRole role,
+        Instant expiresAt,
+        String credentialFingerprint
+) {
+}
@@ -0,0 +1,6 @@
+package com.example.demo.security;
+
+public enum TokenType {
+    ACCESS,
+    REFRESH
+}
@@ -1,9 +1,23 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.CredentialCache;
+import com.example.demo.exception.InvalidCredentialsException;
+import com.example.demo.model.AuthRequest;
+import com.example.demo.model.TokenResponse;
 import com.example.demo.model.UserDetails;
+import com.example.demo.ratelimit.RateLimiter;
+import com.example.demo.security.RequestCaller;
+import com.example.demo.security.TokenAuthentication;
+import com.example.demo.security.TokenService;
+import com.example.demo.security.TokenType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 @Service
 @Slf4j
@@ -11,16 +25,87 @@ import org.springframework.stereotype.Service;
 public class AuthService {
 
     private final UserService userService;
+    private final CredentialCache credentialCache;
+    private final TokenService tokenService;
+    private final ObjectProvider<RateLimiter> rateLimiter;
 
-    public boolean validateUser(String username, String password) {
-        return userService.getUserByName(username)
-                .map(user -> userService.verifyPassword(password, user.password()))
-                .orElse(false);
+    public Mono<Boolean> validateUser(String username, String password) {
+        return authenticateUser(username, password).hasElement();
     }
 
-    public UserDetails authenticateUser(String username, String password) {
+    public Mono<UserDetails> authenticateUser(String username, String password) {
+        if (username == null || password == null) {
+            return Mono.empty();
+        }
         return userService.getUserByName(username)
-                .filter(user -> userService.verifyPassword(password, user.password()))
-                .orElse(null);
+                .filter(AuthService::isActive)
+                .filterWhen(user -> verify(password, user));
+    }
+
+    public Mono<TokenResponse> login(String username, String password) {
+        return authenticateUser(username, password)
+                .map(tokenService::issue)
+                .doOnNext(tokens -> log.debug("Issued tokens for user: {}", username));
+    }
+
+    public Mono<TokenResponse> refresh(String refreshToken) {
+        return Mono.justOrEmpty(tokenService.verify(refreshToken, TokenType.REFRESH))
+                .flatMap(claims -> userService.getUserByName(claims.username())
+                        .filter(AuthService::isActive)
+                        .filter(user -> tokenService.matchesCredentials(claims, user)))
+                .map(tokenService::issue);
+    }
+
+    /**
+     * Resolves the caller: a verified bearer token wins, otherwise the credentials in the request
+     * body are checked, and the user they name is charged against the rate limit (the filter could
+     * only see the shared principal). The user is recorded as the request's {@link RequestCaller}.
+     * Completes empty when neither authenticates.
+     */
+    public Mono<String> resolveUsername(AuthRequest auth) {
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication instanceof TokenAuthentication && authentication.isAuthenticated())
+                .map(Authentication::getName)
+                .switchIfEmpty(Mono.defer(() -> auth == null
+                        ? Mono.empty()
+                        : authenticateUser(auth.username(), auth.password()).flatMap(this::chargeRateLimit)))
+                .flatMap(RequestCaller::resolved);
+    }
+
+    /** As {@link #resolveUsername}, but fails with {@link InvalidCredentialsException} when nobody authenticates. */
+    public Mono<String> requireUsername(AuthRequest auth) {
+        return resolveUsername(auth).switchIfEmpty(Mono.error(InvalidCredentialsException::new));
+    }
+
+    // The cache key includes the stored hash, so a hit is only trusted for the password as it is now.
+    // A miss costs a BCrypt check, which is charged to the account first so wrong guesses are bounded.
+    private Mono<Boolean> verify(String password, UserDetails user) {
+        if (credentialCache.isVerified(user, password)) {
+            return Mono.just(true);
+        }
+        return chargeCredentialCheck(user.name())
+                .then(userService.verifyPassword(password, user.password()))
+                .doOnNext(matches -> {
+                    if (matches) {
+                        credentialCache.markVerified(user, password);
+                    }
+                });
+    }
+
+    private Mono<Void> chargeCredentialCheck(String username) {
+        RateLimiter limiter = rateLimiter.getIfAvailable();
+        return limiter == null ? Mono.empty() : limiter.acquireCredentialCheck(username);
+    }
+
+    private Mono<String> chargeRateLimit(UserDetails user) {
+        RateLimiter limiter = rateLimiter.getIfAvailable();
+        return limiter == null
+                ? Mono.just(user.name())
+                : limiter.acquireDeferred(user.name(), user.userRole()).thenReturn(user.name());
+    }
+
+    private static boolean isActive(UserDetails user) {
+        return !Boolean.FALSE.equals(user.active());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Note;
+import com.example.demo.repository.NoteRepository;
+import com.example.demo.routing.DatabaseRoute;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.context.Context;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Coalesces single-note lookups that arrive within a short window into one
+ * {@code note_id = ANY(...)} query, so a burst of concurrent reads costs one round trip and one
+ * pool checkout instead of one each. A batch is flushed when it reaches the maximum size or the
+ * window elapses, whichever comes first. With a window of zero or a maximum size of one every
+ * lookup goes straight to {@code findById}.
+ * <p>
+ * Lookups from any thread go through a serialized {@link FluxSink}, which queues concurrent
+ * emissions instead of failing or spinning. Each lookup carries its subscriber's database
+ * route; a batch holding lookups with different routes issues one query per route.
+ */
+@Component
+@Slf4j
+public class NoteBatchLoader {
+
+    private final NoteRepository noteRepository;
+    private final boolean batching;
+    private final Disposable dispatcher;
+    private volatile FluxSink<Lookup> lookups;
+
+    public NoteBatchLoader(NoteRepository noteRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${notes.batch-loader.window:2ms}") Duration window,
+                           @Value("${notes.batch-loader.max-batch-size:100}") int maxBatchSize) {
+        this.noteRepository = noteRepository;
+        this.batching = !window.isZero() && maxBatchSize > 1;
+        if (!batching) {
+            this.dispatcher = null;
+            return;
+        }
+        DistributionSummary batchSizes = DistributionSummary.builder("notes.batch-loader.batch.size")
+                .description("Distinct note ids fetched per coalesced lookup query")
+                .register(meterRegistry);
+        this.dispatcher = Flux.<Lookup>create(sink -> this.lookups = sink)
+                .bufferTimeout(maxBatchSize, window)
+                .flatMap(batch -> dispatch(batch, batchSizes))
+                .subscribe();
+    }
+
+    public Mono<Note> load(long noteId) {
+        if (!batching) {
+            return noteRepository.findById(noteId);
+        }
+        return Mono.create(sink -> {
+            FluxSink<Lookup> pending = lookups;
+            if (pending.isCancelled()) {
+                sink.error(new IllegalStateException("Note batch loader is stopped"));
+                return;
+            }
+            pending.next(new Lookup(noteId, DatabaseRoute.forRead(sink.contextView()), sink));
+        });
+    }
+
+    private Mono<Void> dispatch(List<Lookup> batch, DistributionSummary batchSizes) {
+        Map<Function<Context, Context>, List<Lookup>> byRoute = new LinkedHashMap<>();
+        for (Lookup lookup : batch) {
+            byRoute.computeIfAbsent(lookup.route(), route -> new ArrayList<>()).add(lookup);
+        }
+        return Flux.fromIterable(byRoute.entrySet())
+                .flatMap(group -> fetch(group.getValue(), batchSizes).contextWrite(group.getKey()))
+                .then();
+    }
+
+    private Mono<Void> fetch(List<Lookup> batch, DistributionSummary batchSizes) {
+        Set<Long> noteIds = new LinkedHashSet<>();
+        for (Lookup lookup : batch) {
+            noteIds.add(lookup.noteId());
+        }
+        batchSizes.record(noteIds.size());
+        return noteRepository.findByIds(noteIds)
+                .collectMap(Note::getNoteId, Function.identity())
+                .doOnNext(found -> complete(batch, found))
+                .doOnError(error -> batch.forEach(lookup -> lookup.sink().error(error)))
+                .onErrorResume(error -> {
+                    log.debug("Batched note lookup of {} ids failed: {}", noteIds.size(), error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static void complete(List<Lookup> batch, Map<Long, Note> found) {
+        for (Lookup lookup : batch) {
+            Note note = found.get(lookup.noteId());
+            if (note == null) {
+                lookup.sink().success();
+            } else {
+                lookup.sink().success(note);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dispatcher != null) {
+            lookups.complete();
+            dispatcher.dispose();
+        }
+    }
+
+    private record Lookup(long noteId, Function<Context, Context> route, MonoSink<Note> sink) {
+    }
+}
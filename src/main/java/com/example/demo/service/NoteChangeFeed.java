@@ -0,0 +1,175 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.NoteCache;
+import com.example.demo.config.R2dbcPoolConfig;
+import com.example.demo.model.NoteChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes note changes to subscribers. A single dedicated connection per instance LISTENs on the
+ * {@code note_changes} channel filled by the statement-level {@code note_change_notify_*}
+ * triggers, each notification carrying a JSON array of up to 20 changes, and every change is
+ * multicast to all current subscribers. Each subscriber gets its own bounded
+ * buffer, so a slow client loses its own oldest events (or all but the latest) without
+ * holding up anybody else.
+ * <p>
+ * Every change also evicts the note from this instance's {@link NoteCache}, which is how writes
+ * made through other instances reach it; the whole cache is dropped each time the listener
+ * (re)connects, since changes made while it was not listening were never seen.
+ */
+@Service
+@ConditionalOnProperty(name = "notes.feed.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class NoteChangeFeed {
+
+    private static final String CHANNEL = "note_changes";
+    private static final Duration MIN_RECONNECT_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(30);
+
+    private final Sinks.Many<NoteChangeEvent> events = Sinks.many().multicast().directBestEffort();
+    private final ObjectMapper objectMapper;
+    private final R2dbcProperties r2dbcProperties;
+    private final NoteCache noteCache;
+    private final Counter droppedEvents;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicInteger closedSessions = new AtomicInteger();
+    private final int bufferSize;
+    private final boolean latestOnly;
+    private volatile Disposable listener;
+
+    public NoteChangeFeed(ObjectMapper objectMapper,
+                          R2dbcProperties r2dbcProperties,
+                          NoteCache noteCache,
+                          MeterRegistry meterRegistry,
+                          @Value("${notes.feed.buffer-size:256}") int bufferSize,
+                          @Value("${notes.feed.overflow:drop-oldest}") String overflow) {
+        this.objectMapper = objectMapper;
+        this.r2dbcProperties = r2dbcProperties;
+        this.noteCache = noteCache;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.latestOnly = "latest".equalsIgnoreCase(overflow);
+        this.droppedEvents = Counter.builder("notes.feed.dropped")
+                .description("Change events discarded because a subscriber fell behind")
+                .register(meterRegistry);
+        meterRegistry.gauge("notes.feed.subscribers", subscribers);
+    }
+
+    public Flux<NoteChangeEvent> subscribe(String ownerEmail) {
+        Flux<NoteChangeEvent> feed = events.asFlux()
+                .filter(event -> ownerEmail == null || ownerEmail.equals(event.ownerEmail()));
+        Flux<NoteChangeEvent> bounded = latestOnly
+                ? feed.onBackpressureLatest()
+                : feed.onBackpressureBuffer(bufferSize, dropped -> droppedEvents.increment(),
+                        BufferOverflowStrategy.DROP_OLDEST);
+        return bounded
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        PostgresqlConnectionFactory connectionFactory = listenerConnectionFactory();
+        listener = Mono.usingWhen(connectionFactory.create(),
+                        this::listen,
+                        PostgresqlConnection::close)
+                .repeatWhen(completions -> completions.concatMap(ignored -> Mono.delay(reconnectDelay())))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_RECONNECT_DELAY)
+                        .maxBackoff(MAX_RECONNECT_DELAY)
+                        .doBeforeRetry(retry -> log.warn("Note change listener lost its connection, reconnecting: {}",
+                                retry.failure().getMessage())))
+                .subscribe();
+        log.info("Listening for note changes on channel {}", CHANNEL);
+    }
+
+    private Mono<Void> listen(PostgresqlConnection connection) {
+        long start = System.nanoTime();
+        return connection.createStatement("LISTEN " + CHANNEL)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .then(Mono.fromRunnable(noteCache::invalidateAll))
+                .thenMany(connection.getNotifications())
+                .doOnNext(this::publish)
+                .doOnComplete(() -> {
+                    // A session that stayed up past the longest delay was healthy; start backing off afresh
+                    if (Duration.ofNanos(System.nanoTime() - start).compareTo(MAX_RECONNECT_DELAY) >= 0) {
+                        closedSessions.set(0);
+                    }
+                })
+                .then();
+    }
+
+    // The server closed the session cleanly (restart, idle timeout, pg_terminate_backend): back off exponentially
+    private Duration reconnectDelay() {
+        int closed = Math.min(closedSessions.getAndIncrement(), 5);
+        Duration delay = MIN_RECONNECT_DELAY.multipliedBy(1L << closed);
+        delay = delay.compareTo(MAX_RECONNECT_DELAY) > 0 ? MAX_RECONNECT_DELAY : delay;
+        log.warn("Note change listener connection closed, reconnecting in {}", delay);
+        return delay;
+    }
+
+    private void publish(Notification notification) {
+        String payload = notification.getParameter();
+        if (payload == null) {
+            return;
+        }
+        try {
+            JsonNode changes = objectMapper.readTree(payload);
+            if (!changes.isArray()) {
+                emit(objectMapper.treeToValue(changes, NoteChangeEvent.class));
+                return;
+            }
+            for (JsonNode change : changes) {
+                emit(objectMapper.treeToValue(change, NoteChangeEvent.class));
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed note change notification: {}", e.getOriginalMessage());
+        }
+    }
+
+    private void emit(NoteChangeEvent event) {
+        if (event.noteId() != null) {
+            noteCache.invalidate(event.noteId());
+        }
+        events.tryEmitNext(event);
+    }
+
+    // A connection of its own: a LISTEN session lives for the whole process and must not occupy a pool slot.
+    private PostgresqlConnectionFactory listenerConnectionFactory() {
+        return new PostgresqlConnectionFactoryProvider()
+                .create(R2dbcPoolConfig.driverOptions(r2dbcProperties.getUrl(), r2dbcProperties));
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable active = listener;
+        if (active != null) {
+            active.dispose();
+        }
+        events.tryEmitComplete();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Links notes written before {@code user_id} existed to their owner, matching
+ * {@code owner_name} to a user name. That is a heuristic, not a key: {@code owner_name} was
+ * free text supplied by clients, so a display name links nothing and a value that happens to
+ * equal someone's login name links the note to that user. Only enable it where owner names are
+ * known to have been usernames. Walks the table in note_id order one batch per statement
+ * with a pause in between, so each transaction stays short and the primary and any replicas
+ * keep up; a restart simply resumes from the unlinked rows. Rows whose owner matches no user
+ * keep a null {@code user_id}. Does not bump {@code version} or {@code updated_at}, so clients
+ * do not see the backfill as changes.
+ */
+@Component
+@ConditionalOnProperty(name = "notes.owner-backfill.enabled", havingValue = "true")
+@Slf4j
+public class NoteOwnerBackfill {
+
+    private static final String BACKFILL_BATCH = """
+            WITH batch AS (
+                SELECT note_id FROM note
+                WHERE user_id IS NULL AND owner_name IS NOT NULL AND note_id > :after
+                ORDER BY note_id
+                LIMIT :batchSize
+            ), linked AS (
+                UPDATE note n SET user_id = u.id
+                FROM batch b, user_details u
+                WHERE n.note_id = b.note_id AND u.name = n.owner_name
+                RETURNING n.note_id
+            )
+            SELECT (SELECT max(note_id) FROM batch) AS last_note_id, (SELECT count(*) FROM linked) AS linked""";
+
+    private final DatabaseClient databaseClient;
+    private final int batchSize;
+    private final Duration pause;
+    private volatile Disposable run;
+
+    public NoteOwnerBackfill(DatabaseClient databaseClient,
+                             @Value("${notes.owner-backfill.batch-size:1000}") int batchSize,
+                             @Value("${notes.owner-backfill.pause:200ms}") Duration pause) {
+        this.databaseClient = databaseClient;
+        this.batchSize = Math.max(1, batchSize);
+        this.pause = pause;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AtomicLong after = new AtomicLong();
+        AtomicLong linked = new AtomicLong();
+        AtomicLong batches = new AtomicLong();
+        long start = System.nanoTime();
+        log.info("Note owner backfill started: batch size {}, pause {}", batchSize, pause);
+        run = Mono.defer(() -> nextBatch(after.get()))
+                .doOnNext(batch -> {
+                    after.set(Math.max(after.get(), batch.lastNoteId()));
+                    linked.addAndGet(batch.linked());
+                    if (batches.incrementAndGet() % 100 == 0) {
+                        log.info("Note owner backfill progress: {} notes linked, up to note {}", linked.get(), after.get());
+                    }
+                })
+                .delayUntil(batch -> batch.lastNoteId() == 0 ? Mono.empty() : Mono.delay(pause))
+                .repeat()
+                .takeUntil(batch -> batch.lastNoteId() == 0)
+                .then()
+                .subscribe(
+                        done -> { },
+                        error -> log.error("Note owner backfill stopped after note {}: {}", after.get(), error.getMessage()),
+                        () -> log.info("Note owner backfill finished: {} notes linked in {} batches, {} s",
+                                linked.get(), batches.get(), Duration.ofNanos(System.nanoTime() - start).toSeconds()));
+    }
+
+    private Mono<Batch> nextBatch(long after) {
+        return databaseClient.sql(BACKFILL_BATCH)
+                .bind("after", after)
+                .bind("batchSize", batchSize)
+                .map(row -> new Batch(
+                        row.get("last_note_id") == null ? 0 : ((Number) row.get("last_note_id")).longValue(),
+                        ((Number) row.get("linked")).longValue()))
+                .one();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable active = run;
+        if (active != null) {
+            active.dispose();
+        }
+    }
+
+    private record Batch(long lastNoteId, long linked) {
+    }
+}
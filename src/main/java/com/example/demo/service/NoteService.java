@@ -1,12 +1,51 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.NoteCache;
+import com.example.demo.exception.BatchTooLargeException;
+import com.example.demo.exception.BulkIngestException;
+import com.example.demo.exception.NoteNotFoundException;
+import com.example.demo.exception.NoteVersionConflictException;
+import com.example.demo.model.BulkIngestRejection;
+import com.example.demo.model.BulkIngestSummary;
 import com.example.demo.model.Note;
+import com.example.demo.model.NoteBatch;
+import com.example.demo.model.NoteChange;
+import com.example.demo.model.NoteCursor;
+import com.example.demo.model.NoteFilter;
+import com.example.demo.model.NotePage;
+import com.example.demo.model.NoteSearchResult;
+import com.example.demo.model.NoteSyncResult;
+import com.example.demo.model.NoteTombstone;
+import com.example.demo.model.NoteVersion;
 import com.example.demo.repository.NoteRepository;
+import com.example.demo.routing.DatabaseRoute;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.observability.micrometer.Micrometer;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 
 
@@ -16,72 +55,320 @@ import reactor.core.publisher.Mono;
 public class NoteService {
 
     private final NoteRepository noteRepository;
+    private final NoteCache noteCache;
+    private final NoteBatchLoader noteBatchLoader;
+    private final MeterRegistry meterRegistry;
+    private final Validator validator;
 
-    private static final String MESSAGE = "Note not found with id: ";
+    @Value("${notes.page.default-limit:50}")
+    private int defaultPageLimit;
 
-    public Flux<Note> getAllNotes() {
-        log.info("Fetching all notes from repository");
-        return noteRepository.findAll()
-                .doOnNext(note -> log.debug("Retrieved note: {}", note.getNoteId()))
-                .doOnComplete(() -> log.info("All notes retrieved successfully"));
+    @Value("${notes.page.max-limit:500}")
+    private int maxPageLimit;
+
+    @Value("${notes.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    @Value("${notes.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    private static final int MAX_BULK_CHUNK_SIZE = 10_000;
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    @Value("${notes.search.default-limit:20}")
+    private int defaultSearchLimit;
+
+    @Value("${notes.search.max-limit:100}")
+    private int maxSearchLimit;
+
+    @Value("${notes.search.max-offset:1000}")
+    private int maxSearchOffset;
+
+    @Value("${notes.batch-get.max-ids:200}")
+    private int maxBatchGetIds;
+
+    @Value("${notes.sync.default-limit:500}")
+    private int defaultSyncLimit;
+
+    @Value("${notes.sync.max-limit:2000}")
+    private int maxSyncLimit;
+
+    @Value("${notes.sync.settle-window:2s}")
+    private Duration syncSettleWindow;
+
+    private static final Pattern SEARCH_WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final String METRIC_PREFIX = "notes.service.";
+
+    public Mono<NotePage> getNotes(NoteFilter filter, String cursor, Integer limit) {
+        int pageLimit = limit == null ? defaultPageLimit : Math.max(1, Math.min(limit, maxPageLimit));
+        NoteCursor after = cursor == null || cursor.isBlank() ? null : NoteCursor.decode(cursor);
+        Mono<List<Note>> notes = filter.owner() == null
+                ? noteRepository.findPage(filter, null, after, pageLimit + 1).collectList()
+                : noteRepository.findUserId(filter.owner())
+                        .flatMap(userId -> noteRepository.findPage(filter, userId, after, pageLimit + 1).collectList())
+                        .defaultIfEmpty(List.of());
+        return timed("list", notes
+                .map(page -> toPage(page, pageLimit))
+                .contextWrite(DatabaseRoute.READ_ONLY));
+    }
+
+    private NotePage toPage(List<Note> notes, int pageLimit) {
+        if (notes.size() <= pageLimit) {
+            return new NotePage(notes, null);
+        }
+        List<Note> items = notes.subList(0, pageLimit);
+        return new NotePage(items, NoteCursor.of(items.get(pageLimit - 1)).encode());
+    }
+
+    public Mono<NoteSyncResult> sync(String since, String ownerEmail, Integer limit) {
+        int syncLimit = limit == null ? defaultSyncLimit : Math.max(1, Math.min(limit, maxSyncLimit));
+        NoteCursor watermark = since == null || since.isBlank() ? null : NoteCursor.decode(since);
+        return timed("sync", noteRepository.findChangesSince(watermark, ownerEmail, syncSettleWindow, syncLimit + 1)
+                .collectList()
+                .map(changes -> toSyncResult(changes, syncLimit, since)));
+    }
+
+    private NoteSyncResult toSyncResult(List<NoteChange> changes, int syncLimit, String since) {
+        boolean hasMore = changes.size() > syncLimit;
+        List<NoteChange> batch = hasMore ? changes.subList(0, syncLimit) : changes;
+        List<Note> changed = new ArrayList<>(batch.size());
+        List<NoteTombstone> deleted = new ArrayList<>();
+        for (NoteChange change : batch) {
+            if (change.deleted()) {
+                deleted.add(new NoteTombstone(change.note().getNoteId(), change.deletedAt()));
+            } else {
+                changed.add(change.note());
+            }
+        }
+        String watermark = batch.isEmpty() ? since : NoteCursor.of(batch.get(batch.size() - 1).note()).encode();
+        return new NoteSyncResult(changed, deleted, watermark, hasMore);
+    }
+
+    public Flux<Note> exportNotes(String ownerEmail) {
+        return noteRepository.streamAll(ownerEmail, exportFetchSize)
+                .limitRate(exportFetchSize)
+                .contextWrite(DatabaseRoute.READ_ONLY);
+    }
+
+    public Mono<NoteSearchResult> search(String text, String ownerEmail, Integer limit, Integer offset) {
+        int pageLimit = limit == null ? defaultSearchLimit : Math.max(1, Math.min(limit, maxSearchLimit));
+        int pageOffset = offset == null ? 0 : Math.max(0, Math.min(offset, maxSearchOffset));
+        String tsQuery = toPrefixQuery(text);
+        if (tsQuery.isEmpty()) {
+            return Mono.just(new NoteSearchResult(List.of(), null));
+        }
+        return timed("search", noteRepository.search(tsQuery, ownerEmail, pageLimit + 1, pageOffset)
+                .collectList()
+                .map(hits -> hits.size() <= pageLimit
+                        ? new NoteSearchResult(hits, null)
+                        : new NoteSearchResult(hits.subList(0, pageLimit), pageOffset + pageLimit))
+                .contextWrite(DatabaseRoute.READ_ONLY));
+    }
+
+    // Each word becomes a prefix term ("meet" matches "meeting"); only letters and digits survive,
+    // so the result is always valid to_tsquery syntax.
+    private static String toPrefixQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringJoiner terms = new StringJoiner(" & ");
+        for (String word : SEARCH_WORD_SEPARATOR.split(text)) {
+            if (!word.isEmpty()) {
+                terms.add(word.toLowerCase(Locale.ROOT) + ":*");
+            }
+        }
+        return terms.toString();
     }
 
     public Mono<Note> get(long noteId) {
-        log.info("Fetching note with id: {}", noteId);
-        return noteRepository.findById(noteId)
-                .doOnNext(note -> log.debug("Note found: {}", noteId))
-                .switchIfEmpty(Mono.<Note>error(new RuntimeException(MESSAGE + noteId))
-                        .doOnError(error -> log.warn("Note not found: {}", noteId)));
-    }
-
-    public Mono<Note> create(Note note) {
-        log.info("Creating new note with title: {}", note.getTitle());
-        return noteRepository.save(note)
-                .doOnNext(savedNote -> log.info("Note created with id: {}", savedNote.getNoteId()));
-    }
-
-    public Flux<Note> createBulk(Flux<Note> notes) {
-        log.info("Creating notes in bulk");
-        return noteRepository.saveAll(notes)
-                .doOnNext(savedNote -> log.debug("Bulk note created with id: {}", savedNote.getNoteId()))
-                .doOnComplete(() -> log.info("Bulk notes creation completed"));
-    }
-
-    public Mono<Note> update(long noteId, Note note) {
-        log.info("Updating note with id: {}", noteId);
-        return noteRepository.findById(noteId)
-                .flatMap(existingNote -> {
-                    log.debug("Found existing note for update: {}", noteId);
-                    existingNote.setTitle(note.getTitle());
-                    existingNote.setContent(note.getContent());
-                    existingNote.setUpdatedAt(note.getUpdatedAt());
-                    return noteRepository.save(existingNote);
-                })
-                .doOnNext(updatedNote -> log.info("Note updated successfully: {}", noteId))
-                .switchIfEmpty(Mono.<Note>error(new RuntimeException(MESSAGE + noteId))
-                        .doOnError(error -> log.warn("Note not found for update: {}", noteId)));
-    }
-
-    public Mono<Note> patch(long noteId, Note note) {
-        log.info("Patching note with id: {}", noteId);
-        return noteRepository.findById(noteId)
-                .flatMap(existingNote -> {
-                    log.debug("Found existing note for patch: {}", noteId);
-                    if (note.getTitle() != null) existingNote.setTitle(note.getTitle());
-                    if (note.getContent() != null) existingNote.setContent(note.getContent());
-                    if (note.getUpdatedAt() != null) existingNote.setUpdatedAt(note.getUpdatedAt());
-                    if (note.getOwnerName() != null) existingNote.setOwnerName(note.getOwnerName());
-                    if (note.getOwnerEmail() != null) existingNote.setOwnerEmail(note.getOwnerEmail());
-                    return noteRepository.save(existingNote);
-                })
-                .doOnNext(patchedNote -> log.info("Note patched successfully: {}", noteId))
-                .switchIfEmpty(Mono.<Note>error(new RuntimeException(MESSAGE + noteId))
-                        .doOnError(error -> log.warn("Note not found for patch: {}", noteId)));
+        return timed("get", noteCache.get(noteId, noteBatchLoader::load)
+                .switchIfEmpty(Mono.error(() -> new NoteNotFoundException(noteId))));
+    }
+
+    public Mono<NoteBatch> getMany(List<Long> noteIds) {
+        List<Long> distinctIds = noteIds.stream().distinct().toList();
+        if (distinctIds.size() > maxBatchGetIds) {
+            return Mono.error(new BatchTooLargeException(distinctIds.size(), maxBatchGetIds));
+        }
+        return timed("batch-get", noteRepository.findByIds(distinctIds)
+                .collectMap(Note::getNoteId, Function.identity())
+                .map(found -> toBatch(distinctIds, found))
+                .contextWrite(DatabaseRoute.READ_ONLY));
+    }
+
+    private static NoteBatch toBatch(List<Long> noteIds, Map<Long, Note> found) {
+        List<Note> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long noteId : noteIds) {
+            Note note = found.get(noteId);
+            if (note == null) {
+                missingIds.add(noteId);
+            } else {
+                items.add(note);
+            }
+        }
+        return new NoteBatch(items, missingIds);
+    }
+
+    public Mono<NoteVersion> getVersion(long noteId) {
+        return timed("version", noteRepository.findVersion(noteId)
+                .switchIfEmpty(Mono.error(() -> new NoteNotFoundException(noteId)))
+                .contextWrite(DatabaseRoute.READ_ONLY));
+    }
+
+    public Mono<Note> create(Note note, String ownerUsername) {
+        return timed("create", noteRepository.insertAll(List.of(note), ownerUsername)
+                .single()
+                .doOnNext(savedNote -> noteCache.invalidate(savedNote.getNoteId()))
+                .contextWrite(DatabaseRoute.WRITE));
+    }
+
+    public Flux<Note> createBulk(Flux<Note> notes, String ownerUsername) {
+        int chunkSize = Math.max(1, Math.min(bulkChunkSize, MAX_BULK_CHUNK_SIZE));
+        return notes.buffer(chunkSize)
+                .concatMap(chunk -> insertChunk(chunk, ownerUsername))
+                .contextWrite(DatabaseRoute.WRITE);
+    }
+
+    /**
+     * Streams notes into the database in multi-row chunks. Each note is checked against the same
+     * bean validation rules as a single create before it is buffered; invalid notes are skipped and
+     * reported rather than failing the stream. When the stream fails part way (malformed input, a
+     * size limit, the database) the error carries a summary with the last committed offset.
+     */
+    public Mono<BulkIngestSummary> ingest(Flux<Note> notes, String ownerUsername) {
+        int chunkSize = Math.max(1, Math.min(bulkChunkSize, MAX_BULK_CHUNK_SIZE));
+        return timed("ingest", Mono.defer(() -> {
+            IngestProgress progress = new IngestProgress(System.nanoTime());
+            return notes.index()
+                    .filter(indexed -> progress.accept(indexed.getT1(), validator.validate(indexed.getT2())))
+                    .limitRate(chunkSize)
+                    .buffer(chunkSize)
+                    .concatMap(chunk -> insertChunk(chunk.stream().map(Tuple2::getT2).toList(), ownerUsername)
+                            .count()
+                            .doOnNext(inserted -> progress.committed(chunk.get(chunk.size() - 1).getT1(), inserted)))
+                    .then(Mono.fromCallable(() -> {
+                        BulkIngestSummary summary = progress.summary(true);
+                        log.debug("Streaming note ingestion completed: {} notes in {} chunks, {} rejected",
+                                summary.inserted(), summary.chunks(), summary.rejected());
+                        return summary;
+                    }))
+                    .onErrorMap(error -> !(error instanceof BulkIngestException),
+                            error -> new BulkIngestException(progress.summary(false), error));
+        }).contextWrite(DatabaseRoute.WRITE));
+    }
+
+    /** Running totals of one ingestion, readable from whichever thread the stream ends on. */
+    private static final class IngestProgress {
+
+        private final long start;
+        private final AtomicLong seen = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong chunks = new AtomicLong();
+        private final AtomicLong lastCommittedOffset = new AtomicLong(-1);
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<BulkIngestRejection> rejections = Collections.synchronizedList(new ArrayList<>());
+
+        private IngestProgress(long start) {
+            this.start = start;
+        }
+
+        private boolean accept(long offset, Set<ConstraintViolation<Note>> violations) {
+            seen.set(offset + 1);
+            if (violations.isEmpty()) {
+                return true;
+            }
+            if (rejected.getAndIncrement() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new BulkIngestRejection(offset, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "))));
+            }
+            return false;
+        }
+
+        private void committed(long offset, long rows) {
+            inserted.addAndGet(rows);
+            chunks.incrementAndGet();
+            lastCommittedOffset.set(offset);
+        }
+
+        // Once the stream completes every note up to the last one read has been committed or rejected
+        private BulkIngestSummary summary(boolean complete) {
+            long elapsedNanos = System.nanoTime() - start;
+            long rows = inserted.get();
+            double rowsPerSecond = rows * 1_000_000_000.0 / Math.max(elapsedNanos, 1);
+            long offset = complete ? seen.get() - 1 : lastCommittedOffset.get();
+            List<BulkIngestRejection> reported;
+            synchronized (rejections) {
+                reported = List.copyOf(rejections);
+            }
+            return new BulkIngestSummary(rows, rejected.get(), chunks.get(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond, offset, reported, null);
+        }
+    }
+
+    private Flux<Note> insertChunk(List<Note> chunk, String ownerUsername) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return noteRepository.insertAll(chunk, ownerUsername)
+                    .doOnComplete(() -> recordChunk(chunk.size(), System.nanoTime() - start));
+        });
+    }
+
+    private void recordChunk(int rows, long elapsedNanos) {
+        Timer.builder("notes.bulk.chunk")
+                .description("Latency of one multi-row bulk insert statement")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("notes.bulk.rows")
+                .description("Notes inserted through the bulk write path")
+                .register(meterRegistry)
+                .increment(rows);
+        double rowsPerSecond = rows * 1_000_000_000.0 / Math.max(elapsedNanos, 1);
+        log.debug("Bulk chunk inserted: {} rows in {} ms ({} rows/s)",
+                rows, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(rowsPerSecond));
+    }
+
+    public Mono<Note> update(long noteId, Note note, Collection<Long> expectedVersions) {
+        return timed("update", noteRepository.update(noteId, note, expectedVersions)
+                .doOnNext(updatedNote -> noteCache.invalidate(noteId))
+                .switchIfEmpty(Mono.defer(() -> missingOrConflict(noteId, expectedVersions)))
+                .contextWrite(DatabaseRoute.WRITE));
+    }
+
+    public Mono<Note> patch(long noteId, Note note, Collection<Long> expectedVersions) {
+        return timed("patch", noteRepository.patch(noteId, note, expectedVersions)
+                .doOnNext(patchedNote -> noteCache.invalidate(noteId))
+                .switchIfEmpty(Mono.defer(() -> missingOrConflict(noteId, expectedVersions)))
+                .contextWrite(DatabaseRoute.WRITE));
+    }
+
+    private <T> Mono<T> timed(String operation, Mono<T> operationMono) {
+        return operationMono.name(METRIC_PREFIX + operation).tap(Micrometer.metrics(meterRegistry));
+    }
+
+    private Mono<Note> missingOrConflict(long noteId, Collection<Long> expectedVersions) {
+        if (expectedVersions == null) {
+            return Mono.error(new NoteNotFoundException(noteId));
+        }
+        return noteRepository.existsById(noteId)
+                .flatMap(exists -> {
+                    if (!exists) {
+                        return Mono.error(new NoteNotFoundException(noteId));
+                    }
+                    log.debug("Version conflict writing note {}, expected versions {}", noteId, expectedVersions);
+                    return Mono.error(new NoteVersionConflictException(noteId, expectedVersions));
+                });
     }
 
     public Mono<Void> delete(long noteId) {
-        log.info("Deleting note with id: {}", noteId);
-        return noteRepository.deleteById(noteId)
-                .doOnSuccess(result -> log.info("Note deleted successfully: {}", noteId));
+        return timed("delete", noteRepository.deleteByNoteId(noteId)
+                .doOnNext(deleted -> noteCache.invalidate(noteId))
+                .filter(deleted -> deleted > 0)
+                .switchIfEmpty(Mono.error(() -> new NoteNotFoundException(noteId)))
+                .then()
+                .contextWrite(DatabaseRoute.WRITE));
     }
 }
@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.AuthenticationUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs BCrypt hashing on a dedicated bounded scheduler so it never blocks Netty event loops.
+ * When every hashing thread is busy and its queue is full, work is rejected immediately
+ * with {@link AuthenticationUnavailableException} instead of piling up.
+ */
+@Component
+@Slf4j
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final Scheduler scheduler;
+    private final Timer queueWait;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+
+    public PasswordHasher(MeterRegistry meterRegistry,
+                          @Value("${auth.hashing.threads:0}") int threads,
+                          @Value("${auth.hashing.queue-capacity:64}") int queueCapacity) {
+        int threadCap = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.scheduler = Schedulers.newBoundedElastic(threadCap, queueCapacity, "password-hashing");
+        this.queueWait = Timer.builder("auth.hashing.queue.wait")
+                .description("Time password hashing tasks spend queued before a hashing thread picks them up")
+                .register(meterRegistry);
+        this.encodeTimer = bcryptTimer(meterRegistry, "encode");
+        this.matchTimer = bcryptTimer(meterRegistry, "matches");
+        log.info("Password hashing scheduler configured with {} threads and queue capacity {}", threadCap, queueCapacity);
+    }
+
+    public Mono<String> encode(String rawPassword) {
+        return offload(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public Mono<Boolean> matches(String rawPassword, String encodedPassword) {
+        return offload(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private static Timer bcryptTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.bcrypt")
+                .description("CPU time spent inside BCrypt, excluding queueing")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private <T> Mono<T> offload(Timer hashTimer, Callable<T> task) {
+        return Mono.defer(() -> {
+                    long queuedAt = System.nanoTime();
+                    return Mono.fromCallable(() -> {
+                        queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                        return hashTimer.recordCallable(task);
+                    }).subscribeOn(scheduler);
+                })
+                .onErrorMap(RejectedExecutionException.class, ex -> {
+                    log.debug("Password hashing capacity exhausted, rejecting request");
+                    return new AuthenticationUnavailableException("Authentication service is busy, please retry");
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+}
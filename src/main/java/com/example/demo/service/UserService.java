@@ -1,71 +1,68 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.CredentialCache;
 import com.example.demo.model.UserDetails;
 import com.example.demo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
-import java.util.List;
-import java.util.Optional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class UserService {
 
-    @Autowired
-    private UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final CredentialCache credentialCache;
 
-    public UserDetails createUser(UserDetails user) {
-        log.info("Creating user: {}", user.name());
-        String encryptedPassword = passwordEncoder.encode(user.password());
-        UserDetails userWithEncryptedPassword = new UserDetails(user.name(), encryptedPassword, user.userRole(), user.active());
-        UserDetails savedUser = userRepository.save(userWithEncryptedPassword);
-        log.info("User created successfully: {}", savedUser.name());
-        return savedUser;
+    public Mono<UserDetails> createUser(UserDetails user) {
+        return passwordHasher.encode(user.password())
+                .flatMap(encryptedPassword -> userRepository.insert(
+                        new UserDetails(user.name(), encryptedPassword, user.userRole(), user.active())))
+                .doOnNext(savedUser -> {
+                    credentialCache.invalidate(savedUser.name());
+                    log.info("User created successfully: {}", savedUser.name());
+                });
     }
 
-    public Optional<UserDetails> getUserByName(String name) {
-        log.debug("Fetching user by name: {}", name);
-        Optional<UserDetails> user = userRepository.findByName(name);
-        if (user.isPresent()) {
-            log.debug("User found: {}", name);
-        } else {
-            log.warn("User not found: {}", name);
-        }
-        return user;
+    public Mono<UserDetails> getUserByName(String name) {
+        return userRepository.findByName(name);
     }
 
-    public List<UserDetails> getAllUsers() {
-        log.info("Fetching all users");
-        List<UserDetails> users = userRepository.findAll();
-        log.info("Retrieved {} users", users.size());
-        return users;
+    public Flux<UserDetails> getAllUsers() {
+        return userRepository.findAll();
     }
 
-    public UserDetails updateUser(String name, UserDetails updatedUser) {
-        log.info("Updating user: {}", name);
-        String encryptedPassword = passwordEncoder.encode(updatedUser.password());
-        UserDetails user = userRepository.save(new UserDetails(name, encryptedPassword, updatedUser.userRole(), updatedUser.active()));
-        log.info("User updated successfully: {}", name);
-        return user;
+    /**
+     * Replaces the named user's password, role and active flag. Completes empty when the user
+     * does not exist; users are only ever created through {@link #createUser}.
+     */
+    public Mono<UserDetails> updateUser(String name, UserDetails updatedUser) {
+        return passwordHasher.encode(updatedUser.password())
+                .flatMap(encryptedPassword -> userRepository.update(
+                        new UserDetails(name, encryptedPassword, updatedUser.userRole(), updatedUser.active())))
+                .doOnNext(user -> {
+                    credentialCache.invalidate(name);
+                    log.info("User updated successfully: {}", name);
+                });
     }
 
-    public boolean deleteUser(String name) {
-        log.info("Attempting to delete user: {}", name);
-        if (userRepository.existsByName(name)) {
-            userRepository.deleteByName(name);
-            log.info("User deleted successfully: {}", name);
-            return true;
-        }
-        log.warn("User not found for deletion: {}", name);
-        return false;
+    public Mono<Boolean> deleteUser(String name) {
+        return userRepository.deleteByName(name)
+                .doOnNext(deleted -> {
+                    if (deleted) {
+                        credentialCache.invalidate(name);
+                        log.info("User deleted successfully: {}", name);
+                    } else {
+                        log.debug("User not found for deletion: {}", name);
+                    }
+                });
     }
 
-    public boolean verifyPassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+    public Mono<Boolean> verifyPassword(String rawPassword, String encodedPassword) {
+        return passwordHasher.matches(rawPassword, encodedPassword);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+-- Optional: converts note into a table hash-partitioned by user_id, so each user's notes live in one
+-- partition. Only queries that filter on user_id are pruned, and today that is the owner-filtered list
+-- page (GET /api/v1/notes?owner=<username>). Notes are shared between users, so lookups by id (get,
+-- update, patch, delete and their version checks) cannot be narrowed to the caller and probe the
+-- note_id index of every partition. Search, sync, export and the change feed filter on owner_email
+-- and scan every partition. Keep the partition count small unless owner-filtered listing dominates.
+--
+-- Run once with psql during a maintenance window, after the owner backfill has finished
+-- (notes.owner-backfill.enabled=true) and with the application stopped:
+--
+--     psql "$DATABASE_URL" -v partitions=8 -f partition-note-by-owner.sql
+--
+-- Notes without an owner (user_id NULL) land in the remainder-0 partition. Postgres cannot enforce a
+-- primary key that omits the partition key, so note_id stays unique through its sequence and gets a
+-- plain index for lookups by id. schema.sql remains safe to run against the partitioned table.
+
+\set ON_ERROR_STOP on
+\if :{?partitions}
+\else
+    \set partitions 8
+\endif
+
+BEGIN;
+
+LOCK TABLE note IN ACCESS EXCLUSIVE MODE;
+ALTER TABLE note RENAME TO note_unpartitioned;
+
+CREATE TABLE note (LIKE note_unpartitioned INCLUDING DEFAULTS INCLUDING GENERATED)
+    PARTITION BY HASH (user_id);
+
+SELECT format('CREATE TABLE note_p%s PARTITION OF note FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+              remainder, :partitions, remainder)
+FROM generate_series(0, :partitions - 1) AS remainder
+\gexec
+
+INSERT INTO note (note_id, title, content, created_at, updated_at, owner_name, owner_email, version, deleted_at, user_id)
+SELECT note_id, title, content, created_at, updated_at, owner_name, owner_email, version, deleted_at, user_id
+FROM note_unpartitioned;
+
+ALTER SEQUENCE note_note_id_seq OWNED BY note.note_id;
+DROP TABLE note_unpartitioned;
+
+ALTER TABLE note ADD CONSTRAINT note_user_id_fkey FOREIGN KEY (user_id) REFERENCES user_details (id) ON DELETE SET NULL;
+
+CREATE INDEX idx_note_note_id ON note (note_id);
+CREATE INDEX idx_note_user_id_updated_at ON note (user_id, updated_at DESC, note_id DESC);
+CREATE INDEX idx_note_updated_at_note_id ON note (updated_at DESC, note_id DESC);
+CREATE INDEX idx_note_owner_email_updated_at ON note (owner_email, updated_at DESC, note_id DESC);
+CREATE INDEX idx_note_created_at ON note (created_at);
+CREATE INDEX idx_note_search_vector ON note USING GIN (search_vector);
+
+CREATE TRIGGER note_change_notify_insert AFTER INSERT ON note
+    REFERENCING NEW TABLE AS new_notes
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_note_changes();
+CREATE TRIGGER note_change_notify_update AFTER UPDATE ON note
+    REFERENCING OLD TABLE AS old_notes NEW TABLE AS new_notes
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_note_changes();
+CREATE TRIGGER note_change_notify_delete AFTER DELETE ON note
+    REFERENCING OLD TABLE AS old_notes
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_note_changes();
+
+COMMIT;
+
+ANALYZE note;
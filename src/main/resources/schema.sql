@@ -1,3 +1,12 @@
+CREATE TABLE IF NOT EXISTS user_details (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(100) NOT NULL,
+    user_role VARCHAR(20) NOT NULL,
+    active BOOLEAN DEFAULT true,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 CREATE TABLE IF NOT EXISTS note (
     note_id SERIAL PRIMARY KEY,
     title VARCHAR(255) NOT NULL,
@@ -8,11 +17,93 @@ CREATE TABLE IF NOT EXISTS note (
     owner_email VARCHAR(255)
 );
 
-CREATE TABLE IF NOT EXISTS user_details (
-    id SERIAL PRIMARY KEY,
-    name VARCHAR(50) NOT NULL UNIQUE,
-    password VARCHAR(100) NOT NULL,
-    user_role VARCHAR(20) NOT NULL,
-    active BOOLEAN DEFAULT true,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
\ No newline at end of file
+UPDATE note SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+ALTER TABLE note ALTER COLUMN updated_at SET NOT NULL;
+ALTER TABLE note ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Soft delete: deleted notes stay behind as tombstones so delta sync can report them
+ALTER TABLE note ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+-- Owning user, set from the authenticated caller on insert; older rows are linked by the owner backfill.
+-- The (user_id, updated_at) index serves per-user listing and matches the optional hash partitioning by user_id.
+ALTER TABLE note ADD COLUMN IF NOT EXISTS user_id INTEGER REFERENCES user_details (id) ON DELETE SET NULL;
+CREATE INDEX IF NOT EXISTS idx_note_user_id_updated_at ON note (user_id, updated_at DESC, note_id DESC);
+
+-- Keyset pagination and delta sync on (updated_at, note_id), optionally scoped to an owner or creation window
+CREATE INDEX IF NOT EXISTS idx_note_updated_at_note_id ON note (updated_at DESC, note_id DESC);
+CREATE INDEX IF NOT EXISTS idx_note_owner_email_updated_at ON note (owner_email, updated_at DESC, note_id DESC);
+CREATE INDEX IF NOT EXISTS idx_note_created_at ON note (created_at);
+
+-- Full-text search: maintained by Postgres on every insert/update of title or content
+ALTER TABLE note ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (setweight(to_tsvector('english', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED;
+CREATE INDEX IF NOT EXISTS idx_note_search_vector ON note USING GIN (search_vector);
+
+-- Change feed: statement-level triggers read the changed rows from transition tables and send them as
+-- JSON arrays of at most 20 changes per NOTIFY, so a bulk insert costs a handful of notifications rather
+-- than one per row. Payloads carry only metadata because NOTIFY payloads are capped at 8000 bytes.
+-- Postgres allows transition tables only on single-event triggers, hence one trigger per operation.
+-- The body is single-quoted rather than dollar-quoted because the init script is split on semicolons.
+CREATE OR REPLACE FUNCTION notify_note_changes() RETURNS trigger AS '
+DECLARE
+    changes JSON;
+    batch TEXT;
+BEGIN
+    IF TG_OP = ''INSERT'' THEN
+        SELECT json_agg(json_build_object(
+                ''type'', ''created'',
+                ''noteId'', n.note_id,
+                ''ownerEmail'', n.owner_email,
+                ''version'', n.version,
+                ''updatedAt'', n.updated_at))
+        INTO changes
+        FROM new_notes n;
+    ELSIF TG_OP = ''DELETE'' THEN
+        SELECT json_agg(json_build_object(
+                ''type'', ''deleted'',
+                ''noteId'', o.note_id,
+                ''ownerEmail'', o.owner_email,
+                ''version'', o.version,
+                ''updatedAt'', o.updated_at))
+        INTO changes
+        FROM old_notes o;
+    ELSE
+        -- Maintenance writes such as the owner backfill do not bump the version and are not changes
+        SELECT json_agg(json_build_object(
+                ''type'', CASE WHEN n.deleted_at IS NOT NULL AND o.deleted_at IS NULL THEN ''deleted'' ELSE ''updated'' END,
+                ''noteId'', n.note_id,
+                ''ownerEmail'', n.owner_email,
+                ''version'', n.version,
+                ''updatedAt'', n.updated_at))
+        INTO changes
+        FROM new_notes n
+        JOIN old_notes o ON o.note_id = n.note_id
+        WHERE n.version IS DISTINCT FROM o.version;
+    END IF;
+    FOR batch IN
+        SELECT json_agg(change ORDER BY ordinal)::text
+        FROM json_array_elements(changes) WITH ORDINALITY AS c(change, ordinal)
+        GROUP BY (ordinal - 1) / 20
+        ORDER BY (ordinal - 1) / 20
+    LOOP
+        PERFORM pg_notify(''note_changes'', batch);
+    END LOOP;
+    RETURN NULL;
+END;
+' LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS note_change_notify ON note;
+DROP FUNCTION IF EXISTS notify_note_change();
+DROP TRIGGER IF EXISTS note_change_notify_insert ON note;
+CREATE TRIGGER note_change_notify_insert AFTER INSERT ON note
+    REFERENCING NEW TABLE AS new_notes
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_note_changes();
+DROP TRIGGER IF EXISTS note_change_notify_update ON note;
+CREATE TRIGGER note_change_notify_update AFTER UPDATE ON note
+    REFERENCING OLD TABLE AS old_notes NEW TABLE AS new_notes
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_note_changes();
+DROP TRIGGER IF EXISTS note_change_notify_delete ON note;
+CREATE TRIGGER note_change_notify_delete AFTER DELETE ON note
+    REFERENCING OLD TABLE AS old_notes
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_note_changes();
\ No newline at end of file
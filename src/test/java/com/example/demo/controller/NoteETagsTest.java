@@ -0,0 +1,57 @@
+package com.example.demo.controller;
+
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteETagsTest {
+
+    @Test
+    void absentOrWildcardIsUnconditional() {
+        assertThat(NoteETags.expectedVersions(null, 7)).isNull();
+        assertThat(NoteETags.expectedVersions(" ", 7)).isNull();
+        assertThat(NoteETags.expectedVersions("*", 7)).isNull();
+        assertThat(NoteETags.expectedVersions(" * ", 7)).isNull();
+    }
+
+    @Test
+    void parsesStrongTag() {
+        assertThat(NoteETags.expectedVersions("\"7-3\"", 7)).containsExactly(3L);
+    }
+
+    @Test
+    void weakTagsNeverMatch() {
+        assertThat(NoteETags.expectedVersions("W/\"7-3\"", 7)).isEmpty();
+        assertThat(NoteETags.expectedVersions("W/\"7-3\", \"7-4\"", 7)).containsExactly(4L);
+    }
+
+    @Test
+    void acceptsAnyOfSeveralTags() {
+        assertThat(NoteETags.expectedVersions("\"7-3\", \"7-4\",\"7-3\"", 7)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void skipsMalformedTagsAndTagsOfOtherNotes() {
+        assertThat(NoteETags.expectedVersions("7-3", 7)).isEmpty();
+        assertThat(NoteETags.expectedVersions("\"8-3\"", 7)).isEmpty();
+        assertThat(NoteETags.expectedVersions("\"7-x\", \"\", \"", 7)).isEmpty();
+        assertThat(NoteETags.expectedVersions("\"8-3\", \"7-5\"", 7)).containsExactly(5L);
+    }
+
+    @Test
+    void wildcardInsideListIsNotUnconditional() {
+        assertThat(NoteETags.expectedVersions("*, \"7-3\"", 7)).containsExactly(3L);
+    }
+
+    @Test
+    void lastModifiedIsTruncatedToWholeSeconds() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 15, 10, 30, 5, 999_999_000);
+
+        assertThat(NoteETags.lastModified(updatedAt))
+                .isEqualTo(updatedAt.withNano(0).atZone(ZoneId.systemDefault()).toInstant());
+        assertThat(NoteETags.lastModified(null)).isEqualTo(Instant.EPOCH);
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.AppRole;
+import com.example.demo.model.AuthRequest;
+import com.example.demo.model.BulkIngestRejection;
+import com.example.demo.model.BulkIngestSummary;
+import com.example.demo.model.BulkNotesRequest;
+import com.example.demo.model.Note;
+import com.example.demo.model.NotePage;
+import com.example.demo.model.TokenResponse;
+import com.example.demo.model.UserDetails;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises the notes API end to end (JSON binding, validation, conditional requests) against an
+ * embedded PostgreSQL server.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.sql.init.mode=always",
+        "rate-limit.enabled=false",
+        "notes.feed.enabled=false"
+})
+@AutoConfigureWebTestClient
+class NotesControllerTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    private static final String USERNAME = "controller_user";
+    private static final String PASSWORD = "controller-test-password";
+    private static final String NOTES_PATH = "/api/v1/notes";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WebTestClient client;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:" + POSTGRES.getPort() + "/postgres");
+        registry.add("spring.r2dbc.username", () -> "postgres");
+        registry.add("spring.r2dbc.password", () -> "postgres");
+    }
+
+    @BeforeEach
+    void login() {
+        webTestClient.post().uri("/api/v1/user")
+                .headers(headers -> headers.setBasicAuth("admin", "admin"))
+                .bodyValue(new UserDetails(USERNAME, PASSWORD, AppRole.USER, true))
+                .exchange();
+        TokenResponse tokens = webTestClient.post().uri("/api/v1/auth/login")
+                .bodyValue(new AuthRequest(USERNAME, PASSWORD))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TokenResponse.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(tokens).isNotNull();
+        client = webTestClient.mutate()
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.accessToken())
+                .build();
+    }
+
+    @Test
+    void bulkCreateBindsJsonArray() {
+        List<Note> created = client.post().uri(NOTES_PATH + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(bulkBody(25))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBodyList(Note.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(created).hasSize(25);
+        assertThat(created).allSatisfy(note -> {
+            assertThat(note.getNoteId()).isNotNull();
+            // version starts at the column default and is bumped by every later write
+            assertThat(note.getVersion()).isZero();
+        });
+        assertThat(created).extracting(Note::getTitle).contains("Bulk note 0", "Bulk note 24");
+    }
+
+    @Test
+    void bulkCreateRejectsOversizedRequest() {
+        client.post().uri(NOTES_PATH + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(bulkBody(BulkNotesRequest.MAX_NOTES + 1))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.notes").exists();
+    }
+
+    @Test
+    void bulkCreateRejectsInvalidNote() {
+        client.post().uri(NOTES_PATH + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"notes\":[{\"title\":\"ok\"},{\"content\":\"no title\"}]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$['notes[1].title']").exists();
+    }
+
+    @Test
+    void ingestSkipsAndReportsInvalidNotes() {
+        String body = String.join("\n",
+                "{\"title\":\"Streamed 0\"}",
+                "{\"content\":\"no title\"}",
+                "{\"title\":\"Streamed 2\",\"ownerEmail\":\"not-an-email\"}",
+                "{\"title\":\"Streamed 3\"}");
+
+        BulkIngestSummary summary = client.post().uri(NOTES_PATH + "/bulk/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BulkIngestSummary.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(summary).isNotNull();
+        assertThat(summary.inserted()).isEqualTo(2);
+        assertThat(summary.rejected()).isEqualTo(2);
+        assertThat(summary.lastCommittedOffset()).isEqualTo(3);
+        assertThat(summary.error()).isNull();
+        assertThat(summary.rejections()).extracting(BulkIngestRejection::offset).containsExactly(1L, 2L);
+        assertThat(summary.rejections().get(0).reason()).startsWith("title:");
+        assertThat(summary.rejections().get(1).reason()).startsWith("ownerEmail:");
+    }
+
+    @Test
+    void ingestReturnsSummaryWhenStreamIsMalformed() {
+        BulkIngestSummary summary = client.post().uri(NOTES_PATH + "/bulk/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"title\":\"Streamed 0\"}\n{\"title\": oops}\n")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(BulkIngestSummary.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(summary).isNotNull();
+        assertThat(summary.inserted()).isZero();
+        assertThat(summary.lastCommittedOffset()).isEqualTo(-1);
+        assertThat(summary.error()).isNotBlank();
+    }
+
+    @Test
+    void cursorWalksEveryPageOnce() {
+        // One statement gives all five the same updated_at, so the note_id tie-break decides the order
+        List<Long> created = createNotes(5).stream().map(Note::getNoteId).toList();
+
+        List<Long> seen = new ArrayList<>();
+        NotePage page = ownPage(null);
+        page.items().forEach(note -> seen.add(note.getNoteId()));
+        while (page.nextCursor() != null) {
+            page = ownPage(page.nextCursor());
+            page.items().forEach(note -> seen.add(note.getNoteId()));
+        }
+
+        assertThat(seen).doesNotHaveDuplicates().containsAll(created);
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() {
+        client.get().uri(NOTES_PATH + "?cursor={cursor}", "bm90LWEtY3Vyc29y")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri(NOTES_PATH + "?cursor={cursor}", "%%%")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void updateRejectsNoteWithoutTitle() {
+        Note note = createNotes(1).get(0);
+
+        client.put().uri(NOTES_PATH + "/{id}", note.getNoteId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"note\":{\"content\":\"no title\"}}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$['note.title']").exists();
+        client.put().uri(NOTES_PATH + "/{id}", note.getNoteId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void ifMatchUsesStrongComparisonAcrossTagList() {
+        Note note = createNotes(1).get(0);
+        String current = "\"" + note.getNoteId() + "-" + note.getVersion() + "\"";
+
+        update(note.getNoteId(), "W/" + current).expectStatus().isEqualTo(412);
+        update(note.getNoteId(), "\"" + note.getNoteId() + "-99\", " + current)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + note.getNoteId() + "-" + (note.getVersion() + 1) + "\"");
+        // The tag that just matched is stale now
+        update(note.getNoteId(), current).expectStatus().isEqualTo(412);
+        update(note.getNoteId(), "*").expectStatus().isOk();
+    }
+
+    @Test
+    void ifModifiedSinceMatchesAtSecondBoundary() {
+        Note note = createNotes(1).get(0);
+        HttpHeaders headers = client.get().uri(NOTES_PATH + "/{id}", note.getNoteId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Note.class)
+                .getResponseHeaders();
+        long lastModified = headers.getLastModified();
+        assertThat(lastModified).isPositive();
+
+        // updated_at has sub-second precision; echoing Last-Modified back must still count as unmodified
+        client.get().uri(NOTES_PATH + "/{id}", note.getNoteId())
+                .ifModifiedSince(ZonedDateTime.ofInstant(Instant.ofEpochMilli(lastModified), ZoneOffset.UTC))
+                .exchange()
+                .expectStatus().isNotModified();
+        client.get().uri(NOTES_PATH + "/{id}", note.getNoteId())
+                .ifModifiedSince(ZonedDateTime.ofInstant(Instant.ofEpochMilli(lastModified - 1_000), ZoneOffset.UTC))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private NotePage ownPage(String cursor) {
+        NotePage page = client.get()
+                .uri(builder -> builder.path(NOTES_PATH)
+                        .queryParam("owner", USERNAME)
+                        .queryParam("limit", 2)
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(NotePage.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(page).isNotNull();
+        return page;
+    }
+
+    private WebTestClient.ResponseSpec update(long noteId, String ifMatch) {
+        return client.put().uri(NOTES_PATH + "/{id}", noteId)
+                .header(HttpHeaders.IF_MATCH, ifMatch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"note\":{\"title\":\"Updated\",\"content\":\"conditional\"}}")
+                .exchange();
+    }
+
+    private List<Note> createNotes(int count) {
+        List<Note> created = client.post().uri(NOTES_PATH + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(bulkBody(count))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBodyList(Note.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(created).hasSize(count);
+        return created;
+    }
+
+    private static String bulkBody(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "{\"title\":\"Bulk note " + i + "\",\"content\":\"bulk content " + i + "\"}")
+                .collect(Collectors.joining(",", "{\"notes\":[", "]}"));
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start embedded PostgreSQL", e);
+        }
+    }
+}
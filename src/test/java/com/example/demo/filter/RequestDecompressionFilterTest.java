@@ -0,0 +1,223 @@
+package com.example.demo.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestDecompressionFilterTest {
+
+    private static final int COMPRESSED_CHUNK = 4096;
+
+    private static final String BULK_PATH = "/api/v1/notes/bulk";
+    private static final String STREAM_PATH = "/api/v1/notes/bulk/stream";
+
+    private final RequestDecompressionFilter filter =
+            new RequestDecompressionFilter(true, DataSize.ofMegabytes(1), DataSize.ofMegabytes(1));
+
+    @Test
+    void streamsLargeGzipNdjsonBody() {
+        byte[] ndjson = ndjson(4 * 1024 * 1024);
+        RequestDecompressionFilter largeFilter =
+                new RequestDecompressionFilter(true, DataSize.ofMegabytes(64), DataSize.ofMegabytes(64));
+        BodyReader reader = new BodyReader();
+
+        StepVerifier.create(largeFilter.filter(exchange("gzip", gzip(ndjson), new AtomicInteger()), reader))
+                .verifyComplete();
+
+        assertThat(reader.bytes.get()).isEqualTo(ndjson.length);
+        assertThat(reader.digest()).isEqualTo(sha256(ndjson));
+        assertThat(reader.largestBuffer.get()).isLessThanOrEqualTo(8192);
+    }
+
+    @Test
+    void rejectsBodyInflatingPastLimitBeforeReadingItAll() {
+        byte[] compressed = gzip(ndjson(8 * 1024 * 1024));
+        AtomicInteger chunksRead = new AtomicInteger();
+        BodyReader reader = new BodyReader();
+
+        StepVerifier.create(filter.filter(exchange("gzip", compressed, chunksRead), reader))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOfSatisfying(ResponseStatusException.class, e ->
+                                assertThat(e.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE)))
+                .verify();
+
+        assertThat(reader.bytes.get()).isLessThanOrEqualTo(DataSize.ofMegabytes(1).toBytes());
+        assertThat(chunksRead.get()).isLessThan((compressed.length + COMPRESSED_CHUNK - 1) / COMPRESSED_CHUNK);
+    }
+
+    @Test
+    void streamingRouteHasItsOwnLimit() {
+        RequestDecompressionFilter splitFilter =
+                new RequestDecompressionFilter(true, DataSize.ofMegabytes(1), DataSize.ofMegabytes(16));
+        byte[] ndjson = ndjson(4 * 1024 * 1024);
+        BodyReader reader = new BodyReader();
+
+        StepVerifier.create(splitFilter.filter(exchange(STREAM_PATH, "gzip", gzip(ndjson), new AtomicInteger()), reader))
+                .verifyComplete();
+        assertThat(reader.digest()).isEqualTo(sha256(ndjson));
+
+        StepVerifier.create(splitFilter.filter(exchange(BULK_PATH, "gzip", gzip(ndjson), new AtomicInteger()), new BodyReader()))
+                .expectErrorSatisfies(error -> assertThat(((ResponseStatusException) error).getStatusCode())
+                        .isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE))
+                .verify();
+    }
+
+    @Test
+    void inflatesDeflateBody() {
+        byte[] ndjson = ndjson(50_000);
+        BodyReader reader = new BodyReader();
+
+        StepVerifier.create(filter.filter(exchange("deflate", deflate(ndjson), new AtomicInteger()), reader))
+                .verifyComplete();
+
+        assertThat(reader.digest()).isEqualTo(sha256(ndjson));
+    }
+
+    @Test
+    void inflatesConcatenatedGzipMembers() {
+        byte[] first = ndjson(10_000);
+        byte[] second = ndjson(20_000);
+        byte[] body = concat(gzip(first), gzip(second));
+        BodyReader reader = new BodyReader();
+
+        StepVerifier.create(filter.filter(exchange("gzip", body, new AtomicInteger()), reader))
+                .verifyComplete();
+
+        assertThat(reader.digest()).isEqualTo(sha256(concat(first, second)));
+    }
+
+    @Test
+    void rejectsTruncatedBody() {
+        byte[] compressed = gzip(ndjson(100_000));
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length - 20);
+
+        StepVerifier.create(filter.filter(exchange("gzip", truncated, new AtomicInteger()), new BodyReader()))
+                .expectErrorSatisfies(error -> assertThat(((ResponseStatusException) error).getStatusCode())
+                        .isEqualTo(HttpStatus.BAD_REQUEST))
+                .verify();
+    }
+
+    @Test
+    void rejectsUnsupportedEncoding() {
+        StepVerifier.create(filter.filter(exchange("br", new byte[] {1, 2, 3}, new AtomicInteger()), new BodyReader()))
+                .expectErrorSatisfies(error -> assertThat(((ResponseStatusException) error).getStatusCode())
+                        .isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE))
+                .verify();
+    }
+
+    private static MockServerWebExchange exchange(String encoding, byte[] body, AtomicInteger chunksRead) {
+        return exchange(STREAM_PATH, encoding, body, chunksRead);
+    }
+
+    private static MockServerWebExchange exchange(String path, String encoding, byte[] body, AtomicInteger chunksRead) {
+        Flux<DataBuffer> chunks = Flux.range(0, (body.length + COMPRESSED_CHUNK - 1) / COMPRESSED_CHUNK)
+                .doOnNext(index -> chunksRead.incrementAndGet())
+                .map(index -> DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(body,
+                        index * COMPRESSED_CHUNK, Math.min(body.length, (index + 1) * COMPRESSED_CHUNK))));
+        MockServerHttpRequest request = MockServerHttpRequest.post(path)
+                .header(HttpHeaders.CONTENT_ENCODING, encoding)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(chunks);
+        return MockServerWebExchange.from(request);
+    }
+
+    private static byte[] ndjson(int size) {
+        StringBuilder lines = new StringBuilder(size + 128);
+        for (int i = 0; lines.length() < size; i++) {
+            lines.append("{\"title\":\"Streamed note ").append(i)
+                    .append("\",\"content\":\"project meeting notes ").append(i % 97).append("\"}\n");
+        }
+        return lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out)) {
+            deflate.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] joined = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        return newDigest().digest(bytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Consumes the (decompressed) body chunk by chunk, as a streaming decoder would. */
+    private static final class BodyReader implements WebFilterChain {
+
+        private final MessageDigest digest = newDigest();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicInteger largestBuffer = new AtomicInteger();
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            assertThat(exchange.getRequest().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+            return exchange.getRequest().getBody()
+                    .doOnNext(buffer -> {
+                        byte[] chunk = new byte[buffer.readableByteCount()];
+                        buffer.read(chunk);
+                        DataBufferUtils.release(buffer);
+                        digest.update(chunk);
+                        bytes.addAndGet(chunk.length);
+                        largestBuffer.accumulateAndGet(chunk.length, Math::max);
+                    })
+                    .then();
+        }
+
+        byte[] digest() {
+            return digest.digest();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.demo.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingInflaterTest {
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    @Test
+    void inflatesMembersSplitAtEveryByte() {
+        byte[] first = text("first member ", 5_000);
+        byte[] second = text("second member ", 3_000);
+        byte[] body = concat(gzip(first), gzip(new byte[0]), gzip(second));
+
+        assertThat(inflate(body, 1, Long.MAX_VALUE)).isEqualTo(concat(first, second));
+    }
+
+    @Test
+    void inflatesMemberBoundaryInsideChunk() {
+        byte[] first = text("alpha ", 2_000);
+        byte[] second = text("beta ", 2_000);
+        byte[] firstMember = gzip(first);
+        byte[] body = concat(firstMember, gzip(second));
+
+        // The first chunk ends inside the first trailer; the next carries the rest of it and the second header
+        byte[] inflated = inflate(body, firstMember.length - 4, Long.MAX_VALUE);
+
+        assertThat(inflated).isEqualTo(concat(first, second));
+    }
+
+    @Test
+    void skipsOptionalHeaderFieldsSplitAcrossChunks() {
+        byte[] content = text("headers ", 1_000);
+        byte[] member = gzipWithHeaderFields(content, "notes.ndjson", "exported nightly", new byte[300]);
+
+        for (int chunkSize : new int[] {1, 3, 11, 64, member.length}) {
+            assertThat(inflate(concat(member, member), chunkSize, Long.MAX_VALUE))
+                    .as("chunk size %d", chunkSize)
+                    .isEqualTo(concat(content, content));
+        }
+    }
+
+    @Test
+    void inflatesZlibStream() {
+        byte[] content = text("zlib ", 4_000);
+
+        assertThat(inflate(deflate(content), 7, Long.MAX_VALUE)).isEqualTo(content);
+    }
+
+    @Test
+    void rejectsCorruptTrailer() {
+        byte[] member = gzip(text("checksum ", 500));
+        member[member.length - 8] ^= 1;
+
+        assertStatus(() -> inflate(member, 16, Long.MAX_VALUE), HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void rejectsGarbageAfterLastMember() {
+        byte[] body = concat(gzip(text("tail ", 500)), new byte[] {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 0, 0x55});
+
+        assertStatus(() -> inflate(body, 32, Long.MAX_VALUE), HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void rejectsStreamEndingInsideHeader() {
+        byte[] body = Arrays.copyOf(gzip(text("short ", 500)), 6);
+
+        assertStatus(() -> inflate(body, 2, Long.MAX_VALUE), HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void limitCountsAcrossMembers() {
+        byte[] member = gzip(text("limit ", 100));
+
+        assertThat(inflate(member, 64, 1_000)).hasSize(600);
+        assertStatus(() -> inflate(concat(member, member), 64, 1_000), HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    private static byte[] inflate(byte[] body, int chunkSize, long limit) {
+        StreamingInflater inflater = new StreamingInflater(body[0] == 0x1f, limit, 256);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            for (int from = 0; from < body.length; from += chunkSize) {
+                inflater.feed(Arrays.copyOfRange(body, from, Math.min(body.length, from + chunkSize)));
+                DataBuffer buffer;
+                while ((buffer = inflater.next(DefaultDataBufferFactory.sharedInstance)) != null) {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    out.writeBytes(bytes);
+                }
+            }
+            inflater.finish();
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static void assertStatus(Runnable action, HttpStatus status) {
+        assertThatThrownBy(action::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode()).isEqualTo(status));
+    }
+
+    private static byte[] text(String line, int repeat) {
+        return line.repeat(repeat).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out)) {
+            deflate.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // A gzip member with FEXTRA, FNAME, FCOMMENT and FHCRC set, which GZIPOutputStream never writes
+    private static byte[] gzipWithHeaderFields(byte[] content, String name, String comment, byte[] extra) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[] {0x1f, (byte) 0x8b, 8, (byte) (FHCRC | FEXTRA | FNAME | FCOMMENT), 0, 0, 0, 0, 0, (byte) 0xff});
+        out.write(extra.length & 0xff);
+        out.write(extra.length >>> 8);
+        out.writeBytes(extra);
+        out.writeBytes(name.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(0);
+        out.writeBytes(comment.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(0);
+        out.writeBytes(new byte[] {0, 0});
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(content);
+        deflater.finish();
+        byte[] buffer = new byte[4096];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        writeInt(out, (int) crc.getValue());
+        writeInt(out, content.length);
+        return out.toByteArray();
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            out.write(value >>> shift);
+        }
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.demo.load;
+
+import com.example.demo.model.AppRole;
+import com.example.demo.model.AuthRequest;
+import com.example.demo.model.BulkNotesRequest;
+import com.example.demo.model.Note;
+import com.example.demo.model.TokenResponse;
+import com.example.demo.model.UserDetails;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives a mixed list/get/create/update/bulk/delete workload at a fixed request rate through the
+ * full WebFlux and R2DBC stack, backed by an embedded PostgreSQL server (schema.sql relies on
+ * generated tsvector columns and GIN indexes, so H2 is not a faithful stand-in).
+ * <p>
+ * Excluded from {@code test}; run with {@code ./gradlew loadTest -Pload.rps=200 -Pload.duration=PT1M}.
+ * Per-endpoint throughput, latency percentiles and error rates are logged and written to
+ * {@code build/reports/load/}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.sql.init.mode=always",
+        "logging.level.com.example.demo=WARN",
+        "logging.level.org.springframework.security=WARN"
+})
+class NoteApiLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteApiLoadTest.class);
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    private static final String USERNAME = "load_user";
+    private static final String PASSWORD = "load-test-password";
+    private static final String NOTES_PATH = "/api/v1/notes";
+    private static final int MAX_BULK_BODY_BYTES = 192 * 1024;
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99, 0.999};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p95", "p99", "p999"};
+
+    private final int rps = Integer.getInteger("load.rps", 50);
+    private final Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private final int concurrency = Integer.getInteger("load.concurrency", 256);
+    private final int contentSize = Integer.getInteger("load.content-size", 512);
+    private final int bulkSize = Integer.getInteger("load.bulk-size", 50);
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private final Queue<Long> deletableIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong droppedTicks = new AtomicLong();
+
+    @LocalServerPort
+    private int port;
+
+    private WebClient client;
+    private long[] seededIds;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:" + POSTGRES.getPort() + "/postgres");
+        registry.add("spring.r2dbc.username", () -> "postgres");
+        registry.add("spring.r2dbc.password", () -> "postgres");
+        registry.add("rate-limit.enabled", () -> "false");
+    }
+
+    @Test
+    void mixedWorkload() {
+        client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+        String token = login();
+        client = client.mutate()
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+        seededIds = seedNotes(500);
+
+        register("list", 40, () -> exchange(HttpMethod.GET, NOTES_PATH + "?limit=50", null));
+        register("get", 25, () -> exchange(HttpMethod.GET, NOTES_PATH + "/" + randomSeededId(), null));
+        register("create", 15, this::createNote);
+        register("update", 10, () -> exchange(HttpMethod.PUT, NOTES_PATH + "/" + randomSeededId(),
+                Map.of("note", newNote())));
+        register("bulk", 5, () -> exchange(HttpMethod.POST, NOTES_PATH + "/bulk",
+                Map.of("notes", newNotes(Math.min(bulkSize, bulkChunkSize())))));
+        register("delete", 5, this::deleteNote);
+
+        Instant start = Instant.now();
+        Flux.interval(Duration.ofNanos(TimeUnit.SECONDS.toNanos(1) / rps))
+                .take(duration)
+                .onBackpressureDrop(tick -> droppedTicks.incrementAndGet())
+                .flatMap(tick -> pickEndpoint().call(), concurrency)
+                .blockLast(duration.plusMinutes(2));
+        Duration elapsed = Duration.between(start, Instant.now());
+
+        List<Map<String, Object>> report = report(elapsed);
+        long requests = endpoints.values().stream().mapToLong(endpoint -> endpoint.timer.count()).sum();
+        long errors = endpoints.values().stream().mapToLong(endpoint -> (long) endpoint.errors.count()).sum();
+        assertThat(requests).isPositive();
+        assertThat((double) errors / requests).isLessThanOrEqualTo(maxErrorRate);
+        assertThat(report).isNotEmpty();
+    }
+
+    private String login() {
+        client.post().uri("/api/v1/user")
+                .headers(headers -> headers.setBasicAuth("admin", "admin"))
+                .bodyValue(new UserDetails(USERNAME, PASSWORD, AppRole.USER, true))
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+        TokenResponse tokens = client.post().uri("/api/v1/auth/login")
+                .bodyValue(new AuthRequest(USERNAME, PASSWORD))
+                .retrieve()
+                .bodyToMono(TokenResponse.class)
+                .block();
+        assertThat(tokens).isNotNull();
+        return tokens.accessToken();
+    }
+
+    /**
+     * Seeds in chunks small enough to stay under the server's default 256 KB in-memory codec limit
+     * and the bulk endpoint's note cap.
+     */
+    private long[] seedNotes(int count) {
+        int chunkSize = bulkChunkSize();
+        List<Note> created = Flux.range(0, (count + chunkSize - 1) / chunkSize)
+                .concatMap(chunk -> client.post().uri(NOTES_PATH + "/bulk")
+                        .bodyValue(Map.of("notes", newNotes(Math.min(chunkSize, count - chunk * chunkSize))))
+                        .retrieve()
+                        .bodyToFlux(Note.class))
+                .collectList()
+                .block();
+        assertThat(created).hasSize(count);
+        return created.stream().mapToLong(Note::getNoteId).toArray();
+    }
+
+    private int bulkChunkSize() {
+        int bytesPerNote = contentSize + 200;
+        return Math.max(1, Math.min(BulkNotesRequest.MAX_NOTES, MAX_BULK_BODY_BYTES / bytesPerNote));
+    }
+
+    private Mono<Integer> createNote() {
+        return client.post().uri(NOTES_PATH)
+                .bodyValue(Map.of("note", newNote()))
+                .exchangeToMono(response -> response.bodyToMono(Note.class)
+                        .doOnNext(note -> deletableIds.add(note.getNoteId()))
+                        .thenReturn(response.statusCode().value()));
+    }
+
+    private Mono<Integer> deleteNote() {
+        Long id = deletableIds.poll();
+        return id == null ? createNote() : exchange(HttpMethod.DELETE, NOTES_PATH + "/" + id, null);
+    }
+
+    private Mono<Integer> exchange(HttpMethod method, String uri, Object body) {
+        WebClient.RequestBodySpec spec = client.method(method).uri(uri);
+        WebClient.RequestHeadersSpec<?> request = body == null
+                ? spec
+                : spec.contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+        return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()));
+    }
+
+    private void register(String name, int weight, Supplier<Mono<Integer>> call) {
+        endpoints.put(name, new Endpoint(name, weight, call, meterRegistry));
+    }
+
+    private Endpoint pickEndpoint() {
+        int totalWeight = endpoints.values().stream().mapToInt(Endpoint::weight).sum();
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("No endpoint registered");
+    }
+
+    private long randomSeededId() {
+        return seededIds[ThreadLocalRandom.current().nextInt(seededIds.length)];
+    }
+
+    private Note newNote() {
+        long suffix = ThreadLocalRandom.current().nextLong(1_000_000);
+        Note note = new Note();
+        note.setTitle("Load test note " + suffix);
+        note.setContent("project meeting " + "x".repeat(contentSize));
+        note.setOwnerName("Load Tester");
+        note.setOwnerEmail("load" + (suffix % 20) + "@example.com");
+        return note;
+    }
+
+    private List<Note> newNotes(int count) {
+        List<Note> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            notes.add(newNote());
+        }
+        return notes;
+    }
+
+    private List<Map<String, Object>> report(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        log.info("Load test: target {} rps for {}, concurrency {}, dropped ticks {}", rps, duration, concurrency, droppedTicks.get());
+        log.info(String.format("%-8s %8s %9s %9s %9s %9s %9s %9s %8s", "endpoint", "count", "rps",
+                "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "errors"));
+        for (Endpoint endpoint : endpoints.values()) {
+            HistogramSnapshot snapshot = endpoint.timer.takeSnapshot();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint.name);
+            row.put("count", snapshot.count());
+            row.put("throughputPerSecond", snapshot.count() / seconds);
+            ValueAtPercentile[] percentiles = snapshot.percentileValues();
+            for (int i = 0; i < percentiles.length; i++) {
+                row.put(PERCENTILE_LABELS[i] + "Ms", percentiles[i].value(TimeUnit.MILLISECONDS));
+            }
+            row.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+            row.put("errors", (long) endpoint.errors.count());
+            row.put("errorRate", snapshot.count() == 0 ? 0.0 : endpoint.errors.count() / snapshot.count());
+            rows.add(row);
+            log.info(String.format("%-8s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d", endpoint.name, snapshot.count(),
+                    snapshot.count() / seconds,
+                    percentiles[0].value(TimeUnit.MILLISECONDS), percentiles[1].value(TimeUnit.MILLISECONDS),
+                    percentiles[2].value(TimeUnit.MILLISECONDS), percentiles[3].value(TimeUnit.MILLISECONDS),
+                    snapshot.max(TimeUnit.MILLISECONDS), (long) endpoint.errors.count()));
+        }
+        writeReport(rows, seconds);
+        return rows;
+    }
+
+    private void writeReport(List<Map<String, Object>> rows, double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("targetRps", rps);
+        summary.put("durationSeconds", seconds);
+        summary.put("concurrency", concurrency);
+        summary.put("droppedTicks", droppedTicks.get());
+        summary.put("endpoints", rows);
+        try {
+            Path directory = Files.createDirectories(Path.of("build", "reports", "load"));
+            Path file = directory.resolve("load-test-" + Instant.now().toEpochMilli() + ".json");
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), summary);
+            log.info("Load test report written to {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start embedded PostgreSQL", e);
+        }
+    }
+
+    private record Endpoint(String name, int weight, Supplier<Mono<Integer>> request, Timer timer, Counter errors) {
+
+        Endpoint(String name, int weight, Supplier<Mono<Integer>> request, MeterRegistry meterRegistry) {
+            this(name, weight, request,
+                    Timer.builder("load.request")
+                            .tag("endpoint", name)
+                            .publishPercentiles(PERCENTILES)
+                            .register(meterRegistry),
+                    Counter.builder("load.errors").tag("endpoint", name).register(meterRegistry));
+        }
+
+        Mono<Void> call() {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return request.get()
+                        .onErrorResume(error -> Mono.just(-1))
+                        .doOnNext(status -> {
+                            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            if (status < 200 || status >= 300) {
+                                errors.increment();
+                            }
+                        })
+                        .then();
+            });
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryTimingListenerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryTimingListener listener = new QueryTimingListener(meterRegistry, Duration.ofMillis(500));
+
+    @Test
+    void attributesQueriesToThePoolThatServedThem() {
+        listener.forPool("notes-replica-0").afterQuery(execution("SELECT * FROM note WHERE note_id = $1"));
+        listener.forPool("notes").afterQuery(execution("UPDATE note SET title = $1"));
+
+        assertThat(meterRegistry.get("r2dbc.query").tags("pool", "notes-replica-0", "statement", "select").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("r2dbc.query").tags("pool", "notes", "statement", "update").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void reportsStatsOfTheNamedPool() {
+        listener.attach("notes", pool(8, 2, 10, 20, 0));
+        listener.attach("notes-replica-0", pool(20, 0, 20, 20, 7));
+
+        assertThat(listener.poolStats("notes")).isEqualTo("acquired=8 idle=2 allocated=10/20 pending=0");
+        assertThat(listener.poolStats("notes-replica-0")).isEqualTo("acquired=20 idle=0 allocated=20/20 pending=7");
+        assertThat(listener.poolStats("notes-replica-1")).isEqualTo("unavailable");
+    }
+
+    private static QueryExecutionInfo execution(String sql) {
+        QueryExecutionInfo execInfo = mock(QueryExecutionInfo.class);
+        when(execInfo.getExecuteDuration()).thenReturn(Duration.ofMillis(5));
+        when(execInfo.getQueries()).thenReturn(List.of(new QueryInfo(sql)));
+        when(execInfo.isSuccess()).thenReturn(true);
+        return execInfo;
+    }
+
+    private static ConnectionPool pool(int acquired, int idle, int allocated, int maxAllocated, int pending) {
+        PoolMetrics metrics = mock(PoolMetrics.class);
+        when(metrics.acquiredSize()).thenReturn(acquired);
+        when(metrics.idleSize()).thenReturn(idle);
+        when(metrics.allocatedSize()).thenReturn(allocated);
+        when(metrics.getMaxAllocatedSize()).thenReturn(maxAllocated);
+        when(metrics.pendingAcquireSize()).thenReturn(pending);
+        ConnectionPool pool = mock(ConnectionPool.class);
+        when(pool.getMetrics()).thenReturn(Optional.of(metrics));
+        return pool;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.model;
+
+import com.example.demo.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NoteCursorTest {
+
+    @Test
+    void roundTripsThroughEncodedToken() {
+        NoteCursor micros = new NoteCursor(LocalDateTime.of(2024, 1, 15, 10, 30, 5, 123_456_000), 42);
+        NoteCursor wholeMinute = new NoteCursor(LocalDateTime.of(2024, 1, 15, 10, 30), Long.MAX_VALUE);
+
+        assertThat(NoteCursor.decode(micros.encode())).isEqualTo(micros);
+        assertThat(NoteCursor.decode(wholeMinute.encode())).isEqualTo(wholeMinute);
+        assertThat(micros.encode()).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertInvalid("not base64!");
+        assertInvalid(encode("2024-01-15T10:30:05"));
+        assertInvalid(encode("yesterday|42"));
+        assertInvalid(encode("2024-01-15T10:30:05|forty-two"));
+        assertInvalid(encode("2024-01-15T10:30:05|"));
+        assertInvalid(encode("null|42"));
+    }
+
+    private static void assertInvalid(String token) {
+        assertThatThrownBy(() -> NoteCursor.decode(token))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining(token);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
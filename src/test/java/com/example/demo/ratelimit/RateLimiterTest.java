@@ -0,0 +1,128 @@
+package com.example.demo.ratelimit;
+
+import com.example.demo.exception.RateLimitExceededException;
+import com.example.demo.model.AppRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import reactor.test.StepVerifier;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // USER writes: 2 per second (one permit every 500ms), burst of 4
+    private final RateLimiter rateLimiter = new RateLimiter(new RateLimitProperties(Duration.ofMinutes(10), 1_000,
+            Map.of(AppRole.USER, Map.of(RateLimitedRoute.WRITE, new RateLimitProperties.Limit(2, 4))),
+            Map.of(RateLimitedRoute.AUTH, new RateLimitProperties.Limit(1, 1)),
+            List.of()), meterRegistry, now::get);
+
+    @Test
+    void allowsBurstThenRejectsWithTimeToNextPermit() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(rateLimiter.tryAcquire("user:a", AppRole.USER, RateLimitedRoute.WRITE)).isZero();
+        }
+
+        assertThat(rateLimiter.tryAcquire("user:a", AppRole.USER, RateLimitedRoute.WRITE)).isEqualTo(SECOND / 2);
+        assertThat(meterRegistry.get("rate-limit.rejected").tag("route", "write").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void refillsOnePermitPerInterval() {
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.tryAcquire("user:a", AppRole.USER, RateLimitedRoute.WRITE);
+        }
+
+        now.addAndGet(SECOND / 2 - 1);
+        assertThat(rateLimiter.tryAcquire("user:a", AppRole.USER, RateLimitedRoute.WRITE)).isEqualTo(1);
+        now.addAndGet(1);
+        assertThat(rateLimiter.tryAcquire("user:a", AppRole.USER, RateLimitedRoute.WRITE)).isZero();
+        assertThat(rateLimiter.tryAcquire("user:a", AppRole.USER, RateLimitedRoute.WRITE)).isEqualTo(SECOND / 2);
+
+        now.addAndGet(10 * SECOND);
+        for (int i = 0; i < 4; i++) {
+            assertThat(rateLimiter.tryAcquire("user:a", AppRole.USER, RateLimitedRoute.WRITE)).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("user:a", AppRole.USER, RateLimitedRoute.WRITE)).isPositive();
+    }
+
+    @Test
+    void keepsCallersAndRoutesApart() {
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.tryAcquire("user:a", AppRole.USER, RateLimitedRoute.WRITE);
+        }
+
+        assertThat(rateLimiter.tryAcquire("user:b", AppRole.USER, RateLimitedRoute.WRITE)).isZero();
+        assertThat(rateLimiter.tryAcquire("user:a", AppRole.USER, RateLimitedRoute.READ)).isZero();
+    }
+
+    @Test
+    void unconfiguredRouteIsNotLimited() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(rateLimiter.tryAcquire("user:a", AppRole.ADMIN, RateLimitedRoute.WRITE)).isZero();
+        }
+    }
+
+    @Test
+    void anonymousCallersUseTheirOwnTier() {
+        assertThat(rateLimiter.tryAcquire("address:10.0.0.1", null, RateLimitedRoute.AUTH)).isZero();
+        assertThat(rateLimiter.tryAcquire("address:10.0.0.1", null, RateLimitedRoute.AUTH)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void roundsRetryAfterUpToWholeSeconds() {
+        assertThat(RateLimiter.retryAfterSeconds(1)).isEqualTo(1);
+        assertThat(RateLimiter.retryAfterSeconds(SECOND / 2)).isEqualTo(1);
+        assertThat(RateLimiter.retryAfterSeconds(SECOND)).isEqualTo(1);
+        assertThat(RateLimiter.retryAfterSeconds(SECOND + 1)).isEqualTo(2);
+        assertThat(RateLimiter.retryAfterSeconds(5 * SECOND - 1)).isEqualTo(5);
+    }
+
+    @Test
+    void deferredChargeUsesRouteFromContext() {
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(rateLimiter.acquireDeferred("a", AppRole.USER)
+                            .contextWrite(context -> context.put(RateLimitedRoute.class, RateLimitedRoute.WRITE)))
+                    .verifyComplete();
+        }
+
+        StepVerifier.create(rateLimiter.acquireDeferred("a", AppRole.USER)
+                        .contextWrite(context -> context.put(RateLimitedRoute.class, RateLimitedRoute.WRITE)))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOfSatisfying(RateLimitExceededException.class, e ->
+                                assertThat(e.getRetryAfterSeconds()).isEqualTo(1)))
+                .verify();
+        // Same bucket as a bearer-token request from the same user
+        assertThat(rateLimiter.tryAcquire(RateLimiter.USER_KEY_PREFIX + "a", AppRole.USER, RateLimitedRoute.WRITE)).isPositive();
+        // Without a route in the context (token callers, already charged) nothing is taken
+        StepVerifier.create(rateLimiter.acquireDeferred("a", AppRole.USER)).verifyComplete();
+    }
+
+    @Test
+    void credentialChecksAreChargedPerClaimedAccount() {
+        StepVerifier.create(rateLimiter.acquireCredentialCheck("a")).verifyComplete();
+        StepVerifier.create(rateLimiter.acquireCredentialCheck("a"))
+                .expectError(RateLimitExceededException.class)
+                .verify();
+        StepVerifier.create(rateLimiter.acquireCredentialCheck("b")).verifyComplete();
+        // Separate from the bucket the user's own authenticated requests draw on
+        assertThat(rateLimiter.tryAcquire(RateLimiter.USER_KEY_PREFIX + "a", AppRole.USER, RateLimitedRoute.WRITE)).isZero();
+    }
+
+    @Test
+    void userCreationSharesTheCredentialRoute() {
+        assertThat(RateLimitedRoute.of(HttpMethod.POST, "/api/v1/user")).isEqualTo(RateLimitedRoute.AUTH);
+        assertThat(RateLimitedRoute.of(HttpMethod.PUT, "/api/v1/user/a")).isEqualTo(RateLimitedRoute.WRITE);
+        assertThat(RateLimitedRoute.of(HttpMethod.GET, "/api/v1/user")).isEqualTo(RateLimitedRoute.READ);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class TrustedProxiesTest {
+
+    private final TrustedProxies trustedProxies = new TrustedProxies(List.of("10.0.0.0/8", "192.168.1.5", "fd00::/8"));
+
+    @Test
+    void ignoresForwardedForFromUntrustedPeer() {
+        assertThat(trustedProxies.clientAddress(address("203.0.113.7"), List.of("198.51.100.1")))
+                .isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void takesRightmostUntrustedHopBehindTrustedProxies() {
+        assertThat(trustedProxies.clientAddress(address("10.1.2.3"), List.of("1.1.1.1, 198.51.100.1", "192.168.1.5")))
+                .isEqualTo("198.51.100.1");
+    }
+
+    @Test
+    void fallsBackToPeerWithoutForwardedFor() {
+        assertThat(trustedProxies.clientAddress(address("10.1.2.3"), null)).isEqualTo("10.1.2.3");
+        assertThat(trustedProxies.clientAddress(null, List.of("198.51.100.1"))).isEqualTo("unknown");
+    }
+
+    @Test
+    void stopsAtUnparseableHop() {
+        assertThat(trustedProxies.clientAddress(address("10.1.2.3"), List.of("198.51.100.1, evil.example.com")))
+                .isEqualTo("10.1.2.3");
+    }
+
+    @Test
+    void matchesIpv6Ranges() {
+        assertThat(trustedProxies.clientAddress(address("fd12::1"), List.of("2001:db8::1")))
+                .isEqualTo(address("2001:db8::1").getHostAddress());
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new TrustedProxies(List.of("proxy.internal")));
+        assertThatIllegalArgumentException().isThrownBy(() -> new TrustedProxies(List.of("10.0.0.0/33")));
+    }
+
+    private static InetAddress address(String literal) {
+        try {
+            return InetAddress.getByName(literal);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.routing;
+
+import com.example.demo.security.RequestCaller;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseRouteTest {
+
+    @Test
+    void callerResolvedAfterTheContextWasBuiltIsSeen() {
+        RequestCaller caller = new RequestCaller();
+        Context context = caller.bind().andThen(DatabaseRoute.READ_ONLY).apply(Context.empty());
+        assertThat(DatabaseRoute.caller(context)).isNull();
+
+        StepVerifier.create(RequestCaller.resolved("alice").contextWrite(context))
+                .expectNext("alice")
+                .verifyComplete();
+
+        assertThat(DatabaseRoute.caller(context)).isEqualTo("alice");
+    }
+
+    @Test
+    void readRoutesCarryTheEndUserNotTheSharedPrincipal() {
+        Context alice = new RequestCaller("alice").bind().andThen(DatabaseRoute.READ_ONLY).apply(Context.empty());
+        Context aliceAgain = new RequestCaller("alice").bind().andThen(DatabaseRoute.READ_ONLY).apply(Context.empty());
+        Context bob = new RequestCaller("bob").bind().andThen(DatabaseRoute.READ_ONLY).apply(Context.empty());
+
+        assertThat(DatabaseRoute.forRead(alice)).isEqualTo(DatabaseRoute.forRead(aliceAgain));
+        assertThat(DatabaseRoute.forRead(alice)).isNotEqualTo(DatabaseRoute.forRead(bob));
+        assertThat(DatabaseRoute.caller(DatabaseRoute.forRead(bob).apply(Context.empty()))).isEqualTo("bob");
+    }
+
+    @Test
+    void requestWithoutResolvedCallerIsNotSticky() {
+        Context anonymous = DatabaseRoute.READ_ONLY.apply(Context.empty());
+
+        assertThat(DatabaseRoute.caller(anonymous)).isNull();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.security;
+
+import com.example.demo.model.AppRole;
+import com.example.demo.model.TokenResponse;
+import com.example.demo.model.UserDetails;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final Duration ACCESS_TTL = Duration.ofMinutes(15);
+    private static final Duration REFRESH_TTL = Duration.ofDays(7);
+    private static final Instant NOW = Instant.parse("2024-01-15T10:30:00Z");
+    private static final UserDetails USER = new UserDetails("token_user", "$2a$10$storedhash", AppRole.USER, true);
+
+    private final TokenService tokenService = tokenService(SECRET, NOW);
+
+    @Test
+    void verifiesIssuedTokens() {
+        TokenResponse tokens = tokenService.issue(USER);
+
+        assertThat(tokenService.verify(tokens.accessToken(), TokenType.ACCESS)).hasValueSatisfying(claims -> {
+            assertThat(claims.username()).isEqualTo("token_user");
+            assertThat(claims.role()).isEqualTo(AppRole.USER);
+            assertThat(claims.expiresAt()).isEqualTo(NOW.plus(ACCESS_TTL));
+        });
+        assertThat(tokenService.verify(tokens.refreshToken(), TokenType.REFRESH)).hasValueSatisfying(claims ->
+                assertThat(claims.expiresAt()).isEqualTo(NOW.plus(REFRESH_TTL)));
+        assertThat(tokens.expiresIn()).isEqualTo(ACCESS_TTL.toSeconds());
+    }
+
+    @Test
+    void tokenTypesAreNotInterchangeable() {
+        TokenResponse tokens = tokenService.issue(USER);
+
+        assertThat(tokenService.verify(tokens.accessToken(), TokenType.REFRESH)).isEmpty();
+        assertThat(tokenService.verify(tokens.refreshToken(), TokenType.ACCESS)).isEmpty();
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherKey() {
+        byte[] otherKey = new byte[32];
+        otherKey[0] = 1;
+        String token = tokenService(Base64.getEncoder().encodeToString(otherKey), NOW).issue(USER).accessToken();
+
+        assertThat(tokenService.verify(token, TokenType.ACCESS)).isEmpty();
+    }
+
+    @Test
+    void rejectsTamperedSignature() {
+        String token = tokenService.issue(USER).accessToken();
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char first = token.charAt(signatureStart);
+        String tampered = token.substring(0, signatureStart) + (first == 'A' ? 'B' : 'A') + token.substring(signatureStart + 1);
+
+        assertThat(tokenService.verify(tampered, TokenType.ACCESS)).isEmpty();
+    }
+
+    @Test
+    void rejectsTamperedPayload() {
+        String token = tokenService.issue(USER).accessToken();
+        int separator = token.lastIndexOf('.');
+        String payload = new String(Base64.getUrlDecoder().decode(token.substring(0, separator)), StandardCharsets.UTF_8);
+        String elevated = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.replace(".USER.", ".ADMIN.").getBytes(StandardCharsets.UTF_8));
+
+        assertThat(payload).contains(".USER.");
+        assertThat(tokenService.verify(elevated + token.substring(separator), TokenType.ACCESS)).isEmpty();
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThat(tokenService.verify("", TokenType.ACCESS)).isEmpty();
+        assertThat(tokenService.verify("no-separator", TokenType.ACCESS)).isEmpty();
+        assertThat(tokenService.verify(".signature-only", TokenType.ACCESS)).isEmpty();
+        assertThat(tokenService.verify("not*base64.not*base64", TokenType.ACCESS)).isEmpty();
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        TokenResponse tokens = tokenService.issue(USER);
+
+        assertThat(tokenService(SECRET, NOW.plus(ACCESS_TTL).minusSeconds(1)).verify(tokens.accessToken(), TokenType.ACCESS))
+                .isPresent();
+        assertThat(tokenService(SECRET, NOW.plus(ACCESS_TTL)).verify(tokens.accessToken(), TokenType.ACCESS))
+                .isEmpty();
+        assertThat(tokenService(SECRET, NOW.plus(REFRESH_TTL)).verify(tokens.refreshToken(), TokenType.REFRESH))
+                .isEmpty();
+    }
+
+    @Test
+    void refreshTokenIsReusableOnlyWhileCredentialsAreUnchanged() {
+        String refreshToken = tokenService.issue(USER).refreshToken();
+        TokenClaims claims = tokenService.verify(refreshToken, TokenType.REFRESH).orElseThrow();
+
+        // Stateless: presenting the same refresh token again succeeds until the password changes
+        assertThat(tokenService.matchesCredentials(claims, USER)).isTrue();
+        assertThat(tokenService.verify(refreshToken, TokenType.REFRESH)).isPresent();
+        assertThat(tokenService.matchesCredentials(claims, USER)).isTrue();
+
+        UserDetails passwordChanged = new UserDetails(USER.name(), "$2a$10$newhash", AppRole.USER, true);
+        assertThat(tokenService.matchesCredentials(claims, passwordChanged)).isFalse();
+        // A token for one user is never accepted for another with the same hash
+        UserDetails otherUser = new UserDetails("other_user", USER.password(), AppRole.USER, true);
+        assertThat(tokenService.matchesCredentials(claims, otherUser)).isFalse();
+    }
+
+    private static TokenService tokenService(String secret, Instant now) {
+        return new TokenService(secret, ACCESS_TTL, REFRESH_TTL, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
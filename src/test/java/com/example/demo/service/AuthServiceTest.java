@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.CredentialCache;
+import com.example.demo.exception.RateLimitExceededException;
+import com.example.demo.exception.UserAlreadyExistsException;
+import com.example.demo.model.AppRole;
+import com.example.demo.model.UserDetails;
+import com.example.demo.ratelimit.RateLimitProperties;
+import com.example.demo.ratelimit.RateLimitedRoute;
+import com.example.demo.ratelimit.RateLimiter;
+import com.example.demo.repository.InMemoryUserRepository;
+import com.example.demo.security.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.test.StepVerifier;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthServiceTest {
+
+    private static final String USERNAME = "auth_user";
+    private static final String PASSWORD = "first-password";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryUserRepository userRepository = new InMemoryUserRepository();
+    private final PasswordHasher passwordHasher = new PasswordHasher(meterRegistry, 1, 16);
+    private final CredentialCache credentialCache = new CredentialCache(meterRegistry, 100, Duration.ofMinutes(5));
+    private final UserService userService = new UserService(userRepository, passwordHasher, credentialCache);
+    private final AuthService authService = new AuthService(userService, credentialCache,
+            new TokenService("", Duration.ofMinutes(15), Duration.ofDays(7)),
+            new StaticListableBeanFactory().getBeanProvider(RateLimiter.class));
+
+    @BeforeEach
+    void createUser() {
+        userService.createUser(new UserDetails(USERNAME, PASSWORD, AppRole.USER, true)).block();
+        StepVerifier.create(authService.validateUser(USERNAME, PASSWORD)).expectNext(true).verifyComplete();
+    }
+
+    @AfterEach
+    void shutdown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void cachedCredentialsStopMatchingAfterPasswordChangedElsewhere() {
+        // Written straight to the repository, as another instance would, so no local invalidation runs
+        String newHash = passwordHasher.encode("second-password").block();
+        userRepository.update(new UserDetails(USERNAME, newHash, AppRole.USER, true)).block();
+
+        StepVerifier.create(authService.validateUser(USERNAME, PASSWORD)).expectNext(false).verifyComplete();
+        StepVerifier.create(authService.validateUser(USERNAME, "second-password")).expectNext(true).verifyComplete();
+    }
+
+    @Test
+    void deactivatedUserIsRejectedDespiteCachedCredentials() {
+        UserDetails stored = userRepository.findByName(USERNAME).block();
+        userRepository.update(new UserDetails(USERNAME, stored.password(), AppRole.USER, false)).block();
+
+        StepVerifier.create(authService.validateUser(USERNAME, PASSWORD)).expectNext(false).verifyComplete();
+        StepVerifier.create(authService.login(USERNAME, PASSWORD)).verifyComplete();
+    }
+
+    @Test
+    void refreshIsRejectedOnceUserIsDeactivated() {
+        String refreshToken = authService.login(USERNAME, PASSWORD).block().refreshToken();
+        UserDetails stored = userRepository.findByName(USERNAME).block();
+        userRepository.update(new UserDetails(USERNAME, stored.password(), AppRole.USER, false)).block();
+
+        StepVerifier.create(authService.refresh(refreshToken)).verifyComplete();
+    }
+
+    @Test
+    void creatingExistingUserIsRejectedWithoutReplacingCredentials() {
+        StepVerifier.create(userService.createUser(new UserDetails(USERNAME, "taken-over", AppRole.ADMIN, true)))
+                .expectError(UserAlreadyExistsException.class)
+                .verify();
+
+        StepVerifier.create(authService.validateUser(USERNAME, "taken-over")).expectNext(false).verifyComplete();
+        StepVerifier.create(userRepository.findByName(USERNAME).map(UserDetails::userRole))
+                .expectNext(AppRole.USER)
+                .verifyComplete();
+    }
+
+    @Test
+    void wrongPasswordsAreRateLimitedBeforeHashing() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("rateLimiter", new RateLimiter(new RateLimitProperties(null, 0, Map.of(),
+                Map.of(RateLimitedRoute.AUTH, new RateLimitProperties.Limit(0.001, 2)), null), meterRegistry));
+        AuthService limited = new AuthService(userService, credentialCache,
+                new TokenService("", Duration.ofMinutes(15), Duration.ofDays(7)), beans.getBeanProvider(RateLimiter.class));
+        long checksBefore = meterRegistry.get("auth.bcrypt").tag("operation", "matches").timer().count();
+
+        StepVerifier.create(limited.validateUser(USERNAME, "guess-1")).expectNext(false).verifyComplete();
+        StepVerifier.create(limited.validateUser(USERNAME, "guess-2")).expectNext(false).verifyComplete();
+        StepVerifier.create(limited.validateUser(USERNAME, "guess-3")).expectError(RateLimitExceededException.class).verify();
+
+        assertThat(meterRegistry.get("auth.bcrypt").tag("operation", "matches").timer().count()).isEqualTo(checksBefore + 2);
+        // Already verified credentials are served from the cache and cost nothing
+        StepVerifier.create(limited.validateUser(USERNAME, PASSWORD)).expectNext(true).verifyComplete();
+    }
+}
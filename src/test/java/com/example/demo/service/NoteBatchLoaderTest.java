@@ -0,0 +1,145 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Note;
+import com.example.demo.repository.NoteRepository;
+import com.example.demo.routing.DatabaseRoute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NoteBatchLoaderTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(200);
+
+    private final NoteRepository noteRepository = mock(NoteRepository.class);
+    private final Queue<Collection<Long>> queries = new ConcurrentLinkedQueue<>();
+    private final Queue<ContextView> contexts = new ConcurrentLinkedQueue<>();
+    private final Set<Long> existingIds = new HashSet<>();
+    private final NoteBatchLoader loader = new NoteBatchLoader(noteRepository, new SimpleMeterRegistry(), WINDOW, 1_000);
+
+    NoteBatchLoaderTest() {
+        when(noteRepository.findByIds(any())).thenAnswer(invocation -> {
+            Collection<Long> noteIds = List.copyOf(invocation.<Collection<Long>>getArgument(0));
+            queries.add(noteIds);
+            return Flux.deferContextual(context -> {
+                contexts.add(context);
+                return Flux.fromIterable(noteIds).filter(existingIds::contains).map(NoteBatchLoaderTest::note);
+            });
+        });
+    }
+
+    @AfterEach
+    void stop() {
+        loader.stop();
+    }
+
+    @Test
+    void concurrentLoadsShareOneQuery() {
+        LongStream.rangeClosed(1, 200).forEach(existingIds::add);
+
+        List<Note> notes = Flux.range(1, 200)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(id -> loader.load(id))
+                .sequential()
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(notes).hasSize(200);
+        assertThat(queries).hasSize(1);
+        assertThat(queries.peek()).hasSize(200);
+        verify(noteRepository, never()).findById(any(Long.class));
+    }
+
+    @Test
+    void duplicateIdsAreFetchedOnce() {
+        existingIds.add(7L);
+
+        StepVerifier.create(Flux.merge(loader.load(7), loader.load(7), loader.load(7)))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        assertThat(queries).containsExactly(List.of(7L));
+    }
+
+    @Test
+    void missingIdsCompleteEmpty() {
+        existingIds.add(1L);
+
+        StepVerifier.create(Mono.zip(loader.load(1).map(Note::getNoteId).defaultIfEmpty(-1L),
+                        loader.load(2).map(Note::getNoteId).defaultIfEmpty(-1L)))
+                .assertNext(results -> {
+                    assertThat(results.getT1()).isEqualTo(1L);
+                    assertThat(results.getT2()).isEqualTo(-1L);
+                })
+                .verifyComplete();
+        assertThat(queries).hasSize(1);
+    }
+
+    @Test
+    void propagatesSubscriberRouteIntoQuery() {
+        existingIds.add(1L);
+
+        StepVerifier.create(loader.load(1).contextWrite(DatabaseRoute.READ_ONLY))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(contexts).hasSize(1);
+        assertThat(DatabaseRoute.forRead(contexts.peek()))
+                .isEqualTo(DatabaseRoute.forRead(DatabaseRoute.READ_ONLY.apply(Context.empty())));
+    }
+
+    @Test
+    void splitsBatchByRoute() {
+        existingIds.addAll(Set.of(1L, 2L, 3L));
+
+        StepVerifier.create(Flux.merge(
+                        loader.load(1).contextWrite(DatabaseRoute.READ_ONLY),
+                        loader.load(2).contextWrite(DatabaseRoute.READ_ONLY),
+                        loader.load(3)))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        assertThat(queries.stream().map(Set::copyOf).collect(Collectors.toSet()))
+                .containsExactlyInAnyOrder(Set.of(1L, 2L), Set.of(3L));
+    }
+
+    @Test
+    void failedQueryFailsItsLookupsAndLoaderRecovers() {
+        when(noteRepository.findByIds(any()))
+                .thenReturn(Flux.error(new IllegalStateException("database down")))
+                .thenAnswer(invocation -> Flux.just(note(5)));
+
+        StepVerifier.create(loader.load(4)).expectErrorMessage("database down").verify();
+        StepVerifier.create(loader.load(5).map(Note::getNoteId)).expectNext(5L).verifyComplete();
+    }
+
+    private static Note note(long noteId) {
+        Note note = new Note();
+        note.setNoteId(noteId);
+        note.setTitle("Note " + noteId);
+        return note;
+    }
+}